@@ -0,0 +1,343 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       Benchmarks.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Benchmarks of adjacency tests, graph updates and lookups, graph population, shortest path
+ * precomputation, single pair queries, batches of pairs and concurrent clients of {@link WordLadderServer}
+ * on a dictionary made by {@link DictionaryGenerator}.
+ *
+ * Every benchmark runs a few warmup iterations before the measured ones and prints the mean
+ * time per operation and its standard deviation over the measured iterations, queries also
+ * print percentiles of the time of single calls.
+ * Arguments are key=value pairs, e.g. size=100000 maxLength=10 filter=populate:
+ *  size, minLength, maxLength, seed of the dictionary (20000, 3, 8, 400)
+ *  warmup and iterations, number of iterations of each benchmark (3, 5)
+ *  precomputeSize, number of words of the dictionary used by the precomputation benchmarks (3000)
+ *  queries, number of pairs of words queried per iteration (2000)
+ *  sources, number of distinct first words of the pairs of a batch (20)
+ *  clients, number of concurrent clients of the server, each sending queries / clients requests (128)
+ *  filter, only runs the benchmarks whose name contains it
+ *
+ * The classes of the project are in the default package, which JMH does not generate benchmarks for,
+ * so this harness does the warmup, measurement and dead code protection itself.
+ */
+public class Benchmarks {
+
+    /**
+     * Written with every result so the JIT cannot drop the work producing it
+     */
+    private static volatile long sink;
+
+    private final Map<String, String> arguments;
+    private final int warmup;
+    private final int iterations;
+    private final String filter;
+
+    private Benchmarks(Map<String, String> arguments) {
+        this.arguments = arguments;
+        this.warmup = intArgument("warmup", 3);
+        this.iterations = intArgument("iterations", 5);
+        this.filter = arguments.getOrDefault("filter", "");
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> arguments = new HashMap<String, String>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0)
+                throw new IllegalArgumentException("arguments are key=value, got " + arg);
+            arguments.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+        new Benchmarks(arguments).run();
+    }
+
+    private int intArgument(String key, int otherwise) {
+        return arguments.containsKey(key) ? Integer.parseInt(arguments.get(key)) : otherwise;
+    }
+
+    private void run() throws IOException {
+        int size = intArgument("size", 20000);
+        int minLength = intArgument("minLength", 3);
+        int maxLength = intArgument("maxLength", 8);
+        long seed = intArgument("seed", 400);
+        List<String> words = DictionaryGenerator.generate(size, minLength, maxLength, seed);
+        List<String> small = words.subList(0, Math.min(words.size(), intArgument("precomputeSize", 3000)));
+
+        File dictionary = File.createTempFile("dictionary", ".txt");
+        File smallDictionary = File.createTempFile("dictionary", ".txt");
+        dictionary.deleteOnExit();
+        smallDictionary.deleteOnExit();
+        DictionaryGenerator.write(dictionary.getPath(), words);
+        DictionaryGenerator.write(smallDictionary.getPath(), small);
+        System.out.printf("dictionary: %d words of %d to %d letters, seed %d%n%n", size, minLength, maxLength, seed);
+        System.out.printf("%-40s %14s %12s  %s%n", "Benchmark", "Score", "Error", "Units");
+
+        isAdjacent(words);
+        graphs(words);
+        populateGraph(dictionary.getPath());
+        precomputation(smallDictionary.getPath(), small);
+        queries(dictionary.getPath(), smallDictionary.getPath(), words, small);
+        batch(dictionary.getPath(), words);
+        server(dictionary.getPath(), words);
+    }
+
+    /**
+     * WordProcessor.isAdjacent on every pair of up to 2000 words
+     */
+    private void isAdjacent(List<String> words) {
+        List<String> sample = words.subList(0, Math.min(words.size(), 2000));
+        measure("isAdjacent", sample.size() * sample.size(), 1, () -> {
+            long adjacent = 0;
+            for (String word1 : sample)
+                for (String word2 : sample)
+                    if (WordProcessor.isAdjacent(word1, word2))
+                        adjacent++;
+            sink = adjacent;
+        });
+    }
+
+    /**
+     * Adding the words and edges of the dictionary, removing a tenth of the words again, and getNeighbors,
+     * for each graph implementation
+     */
+    private void graphs(List<String> words) {
+        List<String> edges = ParallelEdgeFinder.findEdges(words, ForkJoinPool.commonPool());
+        List<String> removed = words.subList(0, words.size() / 10);
+        Map<String, Supplier<GraphADT<String>>> graphs = new LinkedHashMap<String, Supplier<GraphADT<String>>>();
+        graphs.put("Graph", Graph::new);
+        graphs.put("SparseGraph", SparseGraph::new);
+        graphs.put("WordGraph", WordGraph::new);
+
+        for (Map.Entry<String, Supplier<GraphADT<String>>> entry : graphs.entrySet()) {
+            if (!("graphMutation." + entry.getKey()).contains(filter) && !("getNeighbors." + entry.getKey()).contains(filter))
+                continue;
+            Supplier<GraphADT<String>> factory = entry.getValue();
+            measure("graphMutation." + entry.getKey(), words.size() + edges.size() / 2 + removed.size(), 1, () -> {
+                GraphADT<String> graph = factory.get();
+                for (String word : words)
+                    graph.addVertex(word);
+                for (int i = 0; i < edges.size(); i += 2)
+                    graph.addEdge(edges.get(i), edges.get(i + 1));
+                for (String word : removed)
+                    graph.removeVertex(word);
+                sink = graph.hashCode();
+            });
+
+            GraphADT<String> graph = factory.get();
+            for (String word : words)
+                graph.addVertex(word);
+            for (int i = 0; i < edges.size(); i += 2)
+                graph.addEdge(edges.get(i), edges.get(i + 1));
+            measure("getNeighbors." + entry.getKey(), words.size(), 1, () -> {
+                long neighbors = 0;
+                for (String word : words)
+                    for (String neighbor : graph.getNeighbors(word))
+                        neighbors += neighbor.length();
+                sink = neighbors;
+            });
+        }
+    }
+
+    /**
+     * GraphProcessor.populateGraph on the whole dictionary, reading the file each time
+     */
+    private void populateGraph(String dictionary) {
+        measure("populateGraph", 1, 1_000_000, () -> sink = new GraphProcessor().populateGraph(dictionary));
+    }
+
+    /**
+     * GraphProcessor.shortestPathPrecomputation on the first precomputeSize words
+     */
+    private void precomputation(String dictionary, List<String> words) {
+        GraphProcessor processor = new GraphProcessor();
+        processor.populateGraph(dictionary);
+        measure("shortestPathPrecomputation(" + words.size() + ")", 1, 1_000_000, () -> {
+            processor.shortestPathPrecomputation();
+            sink = processor.getShortestDistance(words.get(0), words.get(words.size() - 1));
+        });
+    }
+
+    /**
+     * Single getShortestPath calls between random pairs of words in each query mode, the precomputed
+     * mode on the precomputeSize words and the others on the whole dictionary
+     */
+    private void queries(String dictionary, String smallDictionary, List<String> words, List<String> small) {
+        int queries = intArgument("queries", 2000);
+        for (GraphProcessor.QueryMode mode : GraphProcessor.QueryMode.values()) {
+            String name = "getShortestPath." + mode;
+            if (!name.contains(filter))
+                continue;
+            boolean precomputed = mode == GraphProcessor.QueryMode.PRECOMPUTED;
+            List<String> pairs = precomputed ? small : words;
+            GraphProcessor processor = new GraphProcessor();
+            processor.populateGraph(precomputed ? smallDictionary : dictionary);
+            processor.setQueryMode(mode);
+            if (precomputed)
+                processor.shortestPathPrecomputation();
+
+            Random random = new Random(queries);
+            long[] times = new long[queries * iterations];
+            for (int iteration = -warmup; iteration < iterations; iteration++) {
+                for (int i = 0; i < queries; i++) {
+                    String word1 = pairs.get(random.nextInt(pairs.size()));
+                    String word2 = pairs.get(random.nextInt(pairs.size()));
+                    long start = System.nanoTime();
+                    List<String> path = processor.getShortestPath(word1, word2);
+                    long time = System.nanoTime() - start;
+                    sink = path == null ? 0 : path.size();
+                    if (iteration >= 0)
+                        times[iteration * queries + i] = time;
+                }
+            }
+
+            Arrays.sort(times);
+            double mean = Arrays.stream(times).average().orElse(0) / 1000;
+            System.out.printf("%-40s %14.3f %12s  us/op  p50 %.3f  p99 %.3f  max %.3f%n", name, mean, "",
+                    times[times.length / 2] / 1000.0, times[(int) (times.length * 0.99)] / 1000.0,
+                    times[times.length - 1] / 1000.0);
+        }
+    }
+
+    /**
+     * The same pairs of words answered by getShortestPath one by one and by one getShortestPaths call,
+     * in the BIDIRECTIONAL mode, the pairs sharing a few first words like a client's batch
+     */
+    private void batch(String dictionary, List<String> words) {
+        int queries = intArgument("queries", 2000);
+        int sources = intArgument("sources", 20);
+        GraphProcessor processor = new GraphProcessor();
+        processor.populateGraph(dictionary);
+        processor.setQueryMode(GraphProcessor.QueryMode.BIDIRECTIONAL);
+        Random random = new Random(queries);
+        List<String> words1 = new ArrayList<String>(queries);
+        List<String> words2 = new ArrayList<String>(queries);
+        for (int i = 0; i < queries; i++) {
+            words1.add(words.get(random.nextInt(sources)));
+            words2.add(words.get(random.nextInt(words.size())));
+        }
+
+        measure("getShortestPaths.single", queries, 1000, () -> {
+            long length = 0;
+            for (int i = 0; i < queries; i++) {
+                List<String> path = processor.getShortestPath(words1.get(i), words2.get(i));
+                length += path == null ? 0 : path.size();
+            }
+            sink = length;
+        });
+        measure("getShortestPaths.batch", queries, 1000, () -> {
+            long length = 0;
+            for (List<String> path : processor.getShortestPaths(words1, words2))
+                length += path == null ? 0 : path.size();
+            sink = length;
+        });
+    }
+
+    /**
+     * Clients sending /distance requests between random words to a WordLadderServer at the same time,
+     * printing the time per request of the whole load and the latencies of single requests
+     */
+    private void server(String dictionary, List<String> words) throws IOException {
+        String name = "WordLadderServer.distance";
+        if (!name.contains(filter))
+            return;
+        int clients = intArgument("clients", 128);
+        int requests = Math.max(1, intArgument("queries", 2000) / clients);
+        GraphProcessor processor = new GraphProcessor();
+        processor.populateGraph(dictionary);
+        processor.setQueryMode(GraphProcessor.QueryMode.BIDIRECTIONAL);
+        processor.publish();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try (WordLadderServer server = new WordLadderServer(processor,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            server.start();
+            measure(name, (long) clients * requests, 1000, () -> {
+                List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+                for (int c = 0; c < clients; c++) {
+                    Random random = new Random(c);
+                    results.add(pool.submit(() -> {
+                        int length = 0;
+                        for (int i = 0; i < requests; i++) {
+                            URI uri = URI.create("http://localhost:" + server.port() + "/distance?from="
+                                    + words.get(random.nextInt(words.size())) + "&to="
+                                    + words.get(random.nextInt(words.size())));
+                            length += client.send(HttpRequest.newBuilder(uri).build(),
+                                    HttpResponse.BodyHandlers.ofString()).body().length();
+                        }
+                        return length;
+                    }));
+                }
+                long length = 0;
+                try {
+                    for (Future<Integer> result : results)
+                        length += result.get();
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+                sink = length;
+            });
+            System.out.printf("%-40s requests %s%s%n", name, server.latencies("/distance"),
+                    server.virtualThreads() ? ", virtual threads" : "");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs the warmup and measured iterations of a benchmark and prints the mean time per operation
+     *
+     * @param name name of the benchmark
+     * @param operations number of operations done by one iteration
+     * @param scale nanoseconds per printed unit, 1 for ns, 1000 for us and 1000000 for ms
+     * @param iteration one iteration of the benchmark
+     */
+    private void measure(String name, long operations, long scale, Runnable iteration) {
+        if (!name.contains(filter))
+            return;
+        for (int i = 0; i < warmup; i++)
+            iteration.run();
+
+        double[] scores = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            iteration.run();
+            scores[i] = (System.nanoTime() - start) / (double) operations / scale;
+        }
+
+        double mean = Arrays.stream(scores).average().orElse(0);
+        double variance = 0;
+        for (double score : scores)
+            variance += (score - mean) * (score - mean);
+        double error = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+        System.out.printf("%-40s %14.3f %12s  %s%n", name, mean, String.format("+- %.3f", error),
+                scale == 1 ? "ns/op" : scale == 1000 ? "us/op" : "ms/op");
+    }
+}
@@ -0,0 +1,110 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       DictionaryGenerator.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Makes synthetic dictionaries of a given size and word length, the same for the same seed,
+ * so the benchmarks can be run on growing inputs and compared between releases.
+ *
+ * Most words are one replacement, addition or deletion away from an earlier word, the others
+ * are random, so the graph has long ladders and many components like a real dictionary.
+ */
+public class DictionaryGenerator {
+
+    /**
+     * Share of the words made by editing an earlier word
+     */
+    private static final double EDIT_SHARE = 0.8;
+
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    /**
+     * @param size number of distinct words
+     * @param minLength length of the shortest words, at least 1
+     * @param maxLength length of the longest words
+     * @param seed seed of the random numbers
+     * @return the words, uppercase and distinct, in the order they were made
+     */
+    public static List<String> generate(int size, int minLength, int maxLength, long seed) {
+        if (minLength < 1 || maxLength < minLength)
+            throw new IllegalArgumentException("lengths must satisfy 1 <= minLength <= maxLength");
+        //counts the possible words, stopping once there are enough
+        long possible = 0;
+        for (int length = minLength; length <= maxLength && possible < size; length++)
+            possible += (long) Math.pow(LETTERS.length(), Math.min(length, 8));
+        if (possible < size)
+            throw new IllegalArgumentException("there are only " + possible + " words of these lengths");
+
+        Random random = new Random(seed);
+        HashSet<String> words = new HashSet<String>();
+        List<String> made = new ArrayList<String>(size);
+        StringBuilder word = new StringBuilder();
+        while (made.size() < size) {
+            word.setLength(0);
+            if (!made.isEmpty() && random.nextDouble() < EDIT_SHARE) {
+                word.append(made.get(random.nextInt(made.size())));
+                edit(word, minLength, maxLength, random);
+            } else {
+                int length = minLength + random.nextInt(maxLength - minLength + 1);
+                for (int i = 0; i < length; i++)
+                    word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+            }
+            if (words.add(word.toString()))
+                made.add(word.toString());
+        }
+        return made;
+    }
+
+    /**
+     * Writes a dictionary to a file, one word per line
+     *
+     * @param path file path to write
+     * @param words the words
+     * @throws IOException exception resulting from writing the file
+     */
+    public static void write(String path, List<String> words) throws IOException {
+        Files.write(Paths.get(path), words, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Replaces, adds or deletes one letter, keeping the length between minLength and maxLength
+     */
+    private static void edit(StringBuilder word, int minLength, int maxLength, Random random) {
+        int edit = random.nextInt(3);
+        if (edit == 1 && word.length() < maxLength)
+            word.insert(random.nextInt(word.length() + 1), LETTERS.charAt(random.nextInt(LETTERS.length())));
+        else if (edit == 2 && word.length() > minLength)
+            word.deleteCharAt(random.nextInt(word.length()));
+        else
+            word.setCharAt(random.nextInt(word.length()), LETTERS.charAt(random.nextInt(LETTERS.length())));
+    }
+
+    /**
+     * Writes a dictionary, arguments: file size minLength maxLength [seed]
+     *
+     * @param args the arguments
+     * @throws IOException exception resulting from writing the file
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.out.println("usage: DictionaryGenerator file size minLength maxLength [seed]");
+            return;
+        }
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 0;
+        write(args[0], generate(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]), seed));
+    }
+}
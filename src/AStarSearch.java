@@ -0,0 +1,188 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       AStarSearch.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Shortest path between one pair of words with the A* algorithm.
+ *
+ * Every edge of the word graph is a single char replacement, addition or deletion, so the
+ * Levenshtein distance between a word and the target never exceeds the number of hops left.
+ * That makes it an admissible heuristic, and since it changes by at most 1 along an edge it is
+ * also consistent, so a word's distance is final the first time it leaves the heap.
+ * Words are expanded in order of hops so far plus heuristic, preferring longer paths on ties,
+ * which steers the search towards the target instead of growing a ball around the source.
+ * An instance must only be used by one thread at a time.
+ */
+public class AStarSearch {
+
+    /**
+     * Hops from the source per vertex index, -1 if not reached
+     */
+    private int[] distance = new int[0];
+
+    /**
+     * Previous vertex on the best known path per vertex index, -1 for the source
+     */
+    private int[] predecessor = new int[0];
+
+    /**
+     * Levenshtein distance to the target per vertex index, -1 if not computed yet
+     */
+    private int[] heuristic = new int[0];
+
+    /**
+     * Vertices whose entries above were set by the last search
+     */
+    private int[] touched = new int[0];
+    private int touchedCount;
+
+    private final IndexedMinHeap open = new IndexedMinHeap();
+    private int[] neighbors = new int[16];
+
+    /**
+     * Two rows of the Levenshtein table
+     */
+    private int[] previousRow = new int[16];
+    private int[] currentRow = new int[16];
+
+    private int expandedCount;
+    private int target = -1;
+
+    /**
+     * Finds a shortest path from source to target
+     *
+     * @param graph the word graph to search
+     * @param source index of the first word
+     * @param target index of the last word
+     * @return number of edges on the path, -1 if there is none
+     */
+    public int search(IndexedGraph<String> graph, int source, int target) {
+        reset(graph.indexBound());
+        this.target = target;
+        String goal = graph.vertexAt(target);
+
+        touch(source);
+        distance[source] = 0;
+        predecessor[source] = -1;
+        open.push(source, key(0, estimate(graph, source, goal)));
+
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            expandedCount++;
+            if (current == target)
+                return distance[target];
+
+            int degree = graph.degree(current);
+            if (degree > neighbors.length)
+                neighbors = new int[Math.max(degree, neighbors.length * 2)];
+            degree = graph.neighborIndices(current, neighbors);
+
+            for (int i = 0; i < degree; i++) {
+                int next = neighbors[i];
+                int hops = distance[current] + 1;
+                if (distance[next] < 0)
+                    touch(next);
+                else if (distance[next] <= hops)
+                    continue;
+                distance[next] = hops;
+                predecessor[next] = current;
+                open.push(next, key(hops, estimate(graph, next, goal)));
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return number of words taken off the heap by the last search
+     */
+    public int exploredCount() {
+        return expandedCount;
+    }
+
+    /**
+     * @return indices of the words on the path found by the last search, from source to target,
+     * null if there was no path
+     */
+    public int[] path() {
+        if (target < 0 || target >= distance.length || distance[target] < 0)
+            return null;
+
+        int[] path = new int[distance[target] + 1];
+        for (int i = path.length - 1, vertex = target; i >= 0; i--, vertex = predecessor[vertex])
+            path[i] = vertex;
+        return path;
+    }
+
+    /**
+     * Orders by hops plus heuristic, then by more hops first
+     */
+    private static long key(int hops, int estimate) {
+        return ((long) (hops + estimate) << 32) - hops;
+    }
+
+    /**
+     * @return the Levenshtein distance from the word at vertex to goal, computed once per search
+     */
+    private int estimate(IndexedGraph<String> graph, int vertex, String goal) {
+        if (heuristic[vertex] < 0)
+            heuristic[vertex] = levenshtein(graph.vertexAt(vertex), goal);
+        return heuristic[vertex];
+    }
+
+    /**
+     * @return minimum number of char replacements, additions and deletions turning word1 into word2
+     */
+    private int levenshtein(String word1, String word2) {
+        if (word2.length() + 1 > previousRow.length) {
+            previousRow = new int[word2.length() + 1];
+            currentRow = new int[word2.length() + 1];
+        }
+        for (int j = 0; j <= word2.length(); j++)
+            previousRow[j] = j;
+
+        for (int i = 1; i <= word1.length(); i++) {
+            currentRow[0] = i;
+            for (int j = 1; j <= word2.length(); j++) {
+                int replace = previousRow[j - 1] + (word1.charAt(i - 1) == word2.charAt(j - 1) ? 0 : 1);
+                currentRow[j] = Math.min(replace, Math.min(previousRow[j], currentRow[j - 1]) + 1);
+            }
+            int[] swap = previousRow;
+            previousRow = currentRow;
+            currentRow = swap;
+        }
+        return previousRow[word2.length()];
+    }
+
+    private void touch(int vertex) {
+        touched[touchedCount++] = vertex;
+    }
+
+    /**
+     * Forgets the last search and makes room for bound vertices
+     */
+    private void reset(int bound) {
+        if (bound > distance.length) {
+            distance = new int[bound];
+            predecessor = new int[bound];
+            heuristic = new int[bound];
+            touched = new int[bound];
+            Arrays.fill(distance, -1);
+            Arrays.fill(heuristic, -1);
+        } else {
+            for (int i = 0; i < touchedCount; i++) {
+                distance[touched[i]] = -1;
+                heuristic[touched[i]] = -1;
+            }
+        }
+        touchedCount = 0;
+        expandedCount = 0;
+        open.reset(bound);
+    }
+}
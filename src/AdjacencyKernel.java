@@ -0,0 +1,174 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       AdjacencyKernel.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Tests whether two words are adjacent, as defined by {@link WordProcessor#isAdjacent(String, String)},
+ * without allocating: Strings are read through charAt and packed words straight from their bytes.
+ *
+ * Like WordProcessor.isAdjacent, equal words count as adjacent, callers which need distinct
+ * words check it themselves.
+ * Byte ranges are compared byte by byte, which is the same as comparing chars for ASCII words.
+ * Words of a {@link WordTable} which are not ASCII are compared as Strings instead.
+ * Same length words are compared 8 bytes at a time, through a long view of the byte array
+ * which the JIT compiles to plain 64 bit loads.
+ */
+public class AdjacencyKernel {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private AdjacencyKernel() {
+    }
+
+    /**
+     * @param word1 first word
+     * @param word2 second word
+     * @return true if the words are at most 1 char replacement, addition or deletion apart
+     */
+    public static boolean isAdjacent(String word1, String word2) {
+        int length1 = word1.length();
+        int length2 = word2.length();
+        if (length1 == length2) {
+            int count = 0;
+            for (int i = 0; i < length1; i++)
+                if (word1.charAt(i) != word2.charAt(i) && ++count > 1)
+                    return false;
+            return true;
+        }
+        if (length1 == length2 + 1)
+            return isDeletion(word1, word2);
+        if (length2 == length1 + 1)
+            return isDeletion(word2, word1);
+        return false;
+    }
+
+    /**
+     * Compares two ASCII words given as byte ranges, e.g. of {@link WordTable#bytes()}
+     *
+     * @param bytes1 array holding the first word
+     * @param from1 index of the first byte of the first word
+     * @param length1 number of bytes of the first word
+     * @param bytes2 array holding the second word
+     * @param from2 index of the first byte of the second word
+     * @param length2 number of bytes of the second word
+     * @return true if the words are at most 1 byte replacement, addition or deletion apart
+     */
+    public static boolean isAdjacent(byte[] bytes1, int from1, int length1, byte[] bytes2, int from2, int length2) {
+        if (length1 == length2)
+            return differences(bytes1, from1, bytes2, from2, length1, 1) <= 1;
+        if (length1 == length2 + 1)
+            return isDeletion(bytes1, from1, bytes2, from2, length2);
+        if (length2 == length1 + 1)
+            return isDeletion(bytes2, from2, bytes1, from1, length1);
+        return false;
+    }
+
+    /**
+     * @param table the table holding both words
+     * @param id1 id of the first word
+     * @param id2 id of the second word
+     * @return true if the words are at most 1 char replacement, addition or deletion apart
+     */
+    public static boolean isAdjacent(WordTable table, int id1, int id2) {
+        byte[] bytes = table.bytes();
+        int from1 = table.offset(id1);
+        int from2 = table.offset(id2);
+        int length1 = table.length(id1);
+        int length2 = table.length(id2);
+        if (!isAscii(bytes, from1, length1) || !isAscii(bytes, from2, length2))
+            return isAdjacent(table.word(id1), table.word(id2));
+        return isAdjacent(bytes, from1, length1, bytes, from2, length2);
+    }
+
+    /**
+     * Checks one word against a block of candidates of the same length for 1 replacement at most
+     *
+     * @param word array holding the word
+     * @param from index of the first byte of the word
+     * @param length number of bytes of the word and of every candidate
+     * @param block array holding the candidates back to back, candidate i starting at blockFrom + i * length
+     * @param blockFrom index of the first byte of the first candidate
+     * @param count number of candidates
+     * @param dest receives the index in the block of every adjacent candidate, must have room for count
+     * @return number of adjacent candidates written to dest
+     */
+    public static int adjacentInBlock(byte[] word, int from, int length, byte[] block, int blockFrom, int count,
+            int[] dest) {
+        int found = 0;
+        for (int i = 0; i < count; i++)
+            if (differences(word, from, block, blockFrom + i * length, length, 1) <= 1)
+                dest[found++] = i;
+        return found;
+    }
+
+    /**
+     * Counts the positions at which two byte ranges of the same length differ, 8 bytes at a time
+     *
+     * @param limit count after which to stop
+     * @return number of differing bytes, or a number above limit once more than limit were found
+     */
+    static int differences(byte[] bytes1, int from1, byte[] bytes2, int from2, int length, int limit) {
+        int count = 0;
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            long diff = (long) LONGS.get(bytes1, from1 + i) ^ (long) LONGS.get(bytes2, from2 + i);
+            if (diff != 0) {
+                //sets the high bit of every byte which is not 0
+                count += Long.bitCount((((diff & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | diff) & HIGH_BITS);
+                if (count > limit)
+                    return count;
+            }
+        }
+        for (; i < length; i++)
+            if (bytes1[from1 + i] != bytes2[from2 + i] && ++count > limit)
+                return count;
+        return count;
+    }
+
+    /**
+     * @return true if removing one char of longer gives shorter, longer being one char longer
+     */
+    private static boolean isDeletion(String longer, String shorter) {
+        int i = 0;
+        int length = shorter.length();
+        while (i < length && longer.charAt(i) == shorter.charAt(i))
+            i++;
+        //skips longer[i] and the rest has to match
+        for (; i < length; i++)
+            if (longer.charAt(i + 1) != shorter.charAt(i))
+                return false;
+        return true;
+    }
+
+    /**
+     * @return true if removing one byte of longer gives shorter, longer being one byte longer
+     */
+    private static boolean isDeletion(byte[] longer, int longerFrom, byte[] shorter, int shorterFrom, int length) {
+        int i = 0;
+        while (i < length && longer[longerFrom + i] == shorter[shorterFrom + i])
+            i++;
+        for (; i < length; i++)
+            if (longer[longerFrom + i + 1] != shorter[shorterFrom + i])
+                return false;
+        return true;
+    }
+
+    private static boolean isAscii(byte[] bytes, int from, int length) {
+        for (int i = from; i < from + length; i++)
+            if (bytes[i] < 0)
+                return false;
+        return true;
+    }
+}
@@ -0,0 +1,136 @@
+/////////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       AdjacencyKernelTest.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class AdjacencyKernel against the char array comparison it replaced
+ */
+public class AdjacencyKernelTest {
+    private List<String> words;
+    private WordTable table;
+    
+    @Before
+    public void setUp() throws Exception {
+        // words up to 19 chars over a small alphabet, so that both the 8 byte blocks and the rest
+        // of a word are compared, and a few words outside ASCII
+        Random random = new Random(19);
+        this.words = new ArrayList<>();
+        this.table = new WordTable();
+        while (words.size() < 600) {
+            StringBuilder word = new StringBuilder();
+            int length = random.nextInt(20);
+            for (int i = 0; i < length; i++)
+                word.append(words.size() % 50 == 0 ? "AB\u00C9".charAt(random.nextInt(3)) : "ABA".charAt(random.nextInt(3)));
+            // a copy with one edit, so that many pairs are adjacent
+            words.add(word.toString());
+            words.add(edit(word, random));
+        }
+        for (String word : words)
+            table.add(word);
+    }
+    
+    /**
+     * @return the word with one char replaced, added or deleted at random
+     */
+    private static String edit(StringBuilder word, Random random) {
+        StringBuilder copy = new StringBuilder(word);
+        int position = random.nextInt(copy.length() + 1);
+        int edit = random.nextInt(3);
+        if (edit == 0 && position < copy.length())
+            copy.setCharAt(position, 'C');
+        else if (edit == 1 && position < copy.length())
+            copy.deleteCharAt(position);
+        else
+            copy.insert(position, 'C');
+        return copy.toString();
+    }
+    
+    /**
+     * The comparison WordProcessor.isAdjacent made before it used AdjacencyKernel
+     */
+    private static boolean expected(String word1, String word2) {
+        char[] w1 = word1.toCharArray();
+        char[] w2 = word2.toCharArray();
+        if (Math.abs(w1.length - w2.length) > 1)
+            return false;
+        if (w1.length == w2.length) {
+            int count = 0;
+            for (int i = 0; i < w1.length; i++) {
+                if (w1[i] != w2[i])
+                    count++;
+                if (count > 1)
+                    return false;
+            }
+            return true;
+        }
+        char[] longer = w1.length > w2.length ? w1 : w2;
+        char[] shorter = w1.length > w2.length ? w2 : w1;
+        int count = 0;
+        for (int i = 0; i < shorter.length; i++) {
+            if (longer[i + count] != shorter[i]) {
+                if (count != 0)
+                    return false;
+                i--;
+                count++;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Test that Strings compare like before for every pair of words
+     */
+    @Test
+    public final void stringsShouldCompareLikeBefore() {
+        for (String word1 : words)
+            for (String word2 : words)
+                assertEquals(word1 + " and " + word2, expected(word1, word2), AdjacencyKernel.isAdjacent(word1, word2));
+    }
+    
+    /**
+     * Test that words of a table compare like their Strings, outside ASCII too
+     */
+    @Test
+    public final void tableWordsShouldCompareLikeStrings() {
+        for (int id1 = 0; id1 < table.size(); id1++)
+            for (int id2 = 0; id2 < table.size(); id2++)
+                assertEquals(table.word(id1) + " and " + table.word(id2),
+                        expected(table.word(id1), table.word(id2)), AdjacencyKernel.isAdjacent(table, id1, id2));
+    }
+    
+    /**
+     * Test that checking a block of same length words finds the same words as checking them one by one
+     */
+    @Test
+    public final void blockShouldFindSameWordsAsPairs() {
+        String[] candidates = {"ABCDEFGHIJK", "ABCDEFGHIJX", "XBCDEFGHIJK", "ABCDEFGHXJX", "ABCDEFGHIJK", "ABCDXFGHIJK"};
+        byte[] block = String.join("", candidates).getBytes(StandardCharsets.US_ASCII);
+        byte[] word = "__ABCDEFGHIJK".getBytes(StandardCharsets.US_ASCII);
+        
+        int[] found = new int[candidates.length];
+        int count = AdjacencyKernel.adjacentInBlock(word, 2, 11, block, 0, candidates.length, found);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < candidates.length; i++)
+            if (expected("ABCDEFGHIJK", candidates[i]))
+                expected.add(i);
+        
+        assertEquals("number of adjacent words in the block", expected.size(), count);
+        for (int i = 0; i < count; i++)
+            assertEquals("adjacent word of the block", (int) expected.get(i), found[i]);
+    }
+}
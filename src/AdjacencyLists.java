@@ -0,0 +1,181 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       AdjacencyLists.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Undirected int adjacency lists indexed by vertex index, the edges of {@link SparseGraph} and {@link WordGraph}.
+ *
+ * Each list is an int array filled up to the degree of its vertex, doubled when full. Neighbors are
+ * kept in no particular order: removing one moves the last neighbor into its place.
+ * The graphs check that indices are vertices, these lists only hold the edges between them.
+ */
+public class AdjacencyLists {
+
+    private static final int INITIAL_DEGREE = 4;
+
+    /**
+     * adjacency[i] holds the indices of the neighbors of vertex i in its first degree[i] cells
+     */
+    private int[][] adjacency;
+    private int[] degree;
+
+    /**
+     * @param capacity number of indices to make room for, grown by {@link #ensureCapacity(int)}
+     */
+    public AdjacencyLists(int capacity) {
+        adjacency = new int[capacity][];
+        degree = new int[capacity];
+    }
+
+    /**
+     * @return number of indices there is room for
+     */
+    public int capacity() {
+        return degree.length;
+    }
+
+    /**
+     * Makes room for the indices below capacity, at least doubling the room when it grows
+     *
+     * @param capacity number of indices needed
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= degree.length)
+            return;
+        int grown = Math.max(capacity, degree.length * 2);
+        adjacency = Arrays.copyOf(adjacency, grown);
+        degree = Arrays.copyOf(degree, grown);
+    }
+
+    /**
+     * Gives an index an empty list if it never had one, a list emptied by {@link #clear(int)} is kept
+     *
+     * @param index a vertex index below the capacity
+     */
+    public void init(int index) {
+        if (adjacency[index] == null)
+            adjacency[index] = new int[INITIAL_DEGREE];
+    }
+
+    /**
+     * Gives an index a copy of a list of neighbors, without adding the index to their lists:
+     * the lists of a whole graph are set at once, e.g. from a {@link CsrGraph}, and have to hold both ends of each edge
+     *
+     * @param index a vertex index below the capacity
+     * @param neighbors array holding the neighbors
+     * @param from position of the first neighbor in the array
+     * @param count number of neighbors
+     */
+    public void set(int index, int[] neighbors, int from, int count) {
+        //keeps room to grow, like a list given by init
+        adjacency[index] = Arrays.copyOfRange(neighbors, from, from + Math.max(count, INITIAL_DEGREE));
+        degree[index] = count;
+    }
+
+    /**
+     * @param index a vertex index
+     * @return number of neighbors of the index, 0 beyond the capacity
+     */
+    public int degree(int index) {
+        return index < degree.length ? degree[index] : 0;
+    }
+
+    /**
+     * @param index a vertex index
+     * @param i position in the list of the index, less than its degree
+     * @return index of the i-th neighbor
+     */
+    public int neighbor(int index, int i) {
+        return adjacency[index][i];
+    }
+
+    /**
+     * Copies the neighbors of an index into dest, see {@link IndexedGraph#neighborIndices(int, int[])}
+     *
+     * @param index a vertex index
+     * @param dest array at least degree(index) long
+     * @return number of neighbors copied
+     */
+    public int neighborIndices(int index, int[] dest) {
+        if (index >= degree.length)
+            return 0;
+        System.arraycopy(adjacency[index], 0, dest, 0, degree[index]);
+        return degree[index];
+    }
+
+    /**
+     * Adds the edge between two different indices unless it is there
+     */
+    public void addEdge(int x, int y) {
+        if (!linked(x, y)) {
+            link(x, y);
+            link(y, x);
+        }
+    }
+
+    /**
+     * Removes the edge between two indices if it is there
+     */
+    public void removeEdge(int x, int y) {
+        unlink(x, y);
+        unlink(y, x);
+    }
+
+    /**
+     * @return true if there is an edge between the two indices
+     */
+    public boolean isAdjacent(int x, int y) {
+        //scans the shorter of the two lists
+        return degree[x] <= degree[y] ? linked(x, y) : linked(y, x);
+    }
+
+    /**
+     * Removes every edge of an index, keeping its emptied list for a later vertex at the index
+     */
+    public void clear(int index) {
+        //Drops the vertex from the list of each of its neighbors
+        for (int i = 0; i < degree[index]; i++)
+            unlink(adjacency[index][i], index);
+        degree[index] = 0;
+    }
+
+    /**
+     * @return true if to is in the adjacency list of from
+     */
+    private boolean linked(int from, int to) {
+        int[] list = adjacency[from];
+        for (int i = 0; i < degree[from]; i++)
+            if (list[i] == to)
+                return true;
+        return false;
+    }
+
+    /**
+     * Appends to at the end of the adjacency list of from, growing the list when full
+     */
+    private void link(int from, int to) {
+        if (degree[from] == adjacency[from].length)
+            adjacency[from] = Arrays.copyOf(adjacency[from], degree[from] * 2);
+        adjacency[from][degree[from]++] = to;
+    }
+
+    /**
+     * Removes to from the adjacency list of from by moving the last neighbor into its place
+     */
+    private void unlink(int from, int to) {
+        int[] list = adjacency[from];
+        for (int i = 0; i < degree[from]; i++) {
+            if (list[i] == to) {
+                list[i] = list[--degree[from]];
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       BidirectionalSearch.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Shortest path between one pair of vertices, searching breadth first from both ends at once.
+ *
+ * Each round expands one whole level of whichever side has the smaller frontier. As soon as
+ * a level reaches a vertex already reached from the other side the shortest path is known,
+ * after only visiting the vertices around both ends instead of everything within the
+ * distance of the first one. Arrays are kept between searches like in {@link BreadthFirstSearch}.
+ * An instance must only be used by one thread at a time.
+ */
+public class BidirectionalSearch {
+
+    /**
+     * Vertices reached from the source / from the target in the order they were reached
+     */
+    private int[] forwardQueue = new int[0];
+    private int[] backwardQueue = new int[0];
+
+    /**
+     * Distance from the source / to the target per vertex index, -1 if not reached
+     */
+    private int[] forwardDistance = new int[0];
+    private int[] backwardDistance = new int[0];
+
+    /**
+     * Next vertex towards the source / towards the target per vertex index, -1 at the ends
+     */
+    private int[] forwardPredecessor = new int[0];
+    private int[] backwardSuccessor = new int[0];
+
+    private int[] neighbors = new int[16];
+
+    private int forwardCount;
+    private int backwardCount;
+    private int source = -1;
+    private int meeting = -1;
+    private int distance = -1;
+
+    /**
+     * Finds a shortest path from source to target
+     *
+     * @param graph the graph to search
+     * @param source index of the first vertex
+     * @param target index of the last vertex
+     * @return number of edges on the path, -1 if there is none
+     */
+    public int search(IndexedGraph<?> graph, int source, int target) {
+        reset(graph.indexBound());
+        this.source = source;
+
+        forwardQueue[forwardCount++] = source;
+        forwardDistance[source] = 0;
+        forwardPredecessor[source] = -1;
+        backwardQueue[backwardCount++] = target;
+        backwardDistance[target] = 0;
+        backwardSuccessor[target] = -1;
+        if (source == target) {
+            meeting = source;
+            return distance = 0;
+        }
+
+        //start of the current level of each side
+        int forwardLevel = 0;
+        int backwardLevel = 0;
+        while (forwardLevel < forwardCount && backwardLevel < backwardCount) {
+            if (forwardCount - forwardLevel <= backwardCount - backwardLevel) {
+                int end = forwardCount;
+                expand(graph, forwardLevel, end, true);
+                forwardLevel = end;
+            } else {
+                int end = backwardCount;
+                expand(graph, backwardLevel, end, false);
+                backwardLevel = end;
+            }
+            //every path through a vertex of the new level is at least as long as the best meeting found in it
+            if (meeting >= 0)
+                return distance;
+        }
+        return -1;
+    }
+
+    /**
+     * Expands queue[from] up to queue[to] of one side, remembering the shortest meeting with the other side
+     */
+    private void expand(IndexedGraph<?> graph, int from, int to, boolean forward) {
+        int[] queue = forward ? forwardQueue : backwardQueue;
+        int[] own = forward ? forwardDistance : backwardDistance;
+        int[] other = forward ? backwardDistance : forwardDistance;
+        int[] link = forward ? forwardPredecessor : backwardSuccessor;
+        int count = forward ? forwardCount : backwardCount;
+
+        for (int head = from; head < to; head++) {
+            int current = queue[head];
+            int degree = graph.degree(current);
+            if (degree > neighbors.length)
+                neighbors = new int[Math.max(degree, neighbors.length * 2)];
+            degree = graph.neighborIndices(current, neighbors);
+
+            for (int i = 0; i < degree; i++) {
+                int next = neighbors[i];
+                if (own[next] >= 0)
+                    continue;
+                own[next] = own[current] + 1;
+                link[next] = current;
+                queue[count++] = next;
+                if (other[next] >= 0 && (meeting < 0 || own[next] + other[next] < distance)) {
+                    meeting = next;
+                    distance = own[next] + other[next];
+                }
+            }
+        }
+
+        if (forward)
+            forwardCount = count;
+        else
+            backwardCount = count;
+    }
+
+    /**
+     * @return number of vertices reached from either end by the last search
+     */
+    public int exploredCount() {
+        return forwardCount + backwardCount;
+    }
+
+    /**
+     * @return indices of the vertices on the path found by the last search, from source to target,
+     * null if there was no path
+     */
+    public int[] path() {
+        if (meeting < 0)
+            return null;
+
+        int[] path = new int[distance + 1];
+        int i = forwardDistance[meeting];
+        for (int vertex = meeting; vertex >= 0; vertex = forwardPredecessor[vertex])
+            path[i--] = vertex;
+        i = forwardDistance[meeting];
+        for (int vertex = backwardSuccessor[meeting]; vertex >= 0; vertex = backwardSuccessor[vertex])
+            path[++i] = vertex;
+        return path;
+    }
+
+    /**
+     * @return index of the source of the last search
+     */
+    public int source() {
+        return source;
+    }
+
+    /**
+     * Forgets the last search and makes room for bound vertices
+     */
+    private void reset(int bound) {
+        if (bound > forwardDistance.length) {
+            forwardQueue = new int[bound];
+            backwardQueue = new int[bound];
+            forwardDistance = new int[bound];
+            backwardDistance = new int[bound];
+            forwardPredecessor = new int[bound];
+            backwardSuccessor = new int[bound];
+            Arrays.fill(forwardDistance, -1);
+            Arrays.fill(backwardDistance, -1);
+        } else {
+            for (int i = 0; i < forwardCount; i++)
+                forwardDistance[forwardQueue[i]] = -1;
+            for (int i = 0; i < backwardCount; i++)
+                backwardDistance[backwardQueue[i]] = -1;
+        }
+        forwardCount = 0;
+        backwardCount = 0;
+        meeting = -1;
+        distance = -1;
+    }
+}
@@ -0,0 +1,170 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       BreadthFirstSearch.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Single source shortest paths over the vertex indices of an {@link IndexedGraph}.
+ *
+ * Every edge has weight 1, so a breadth first search finds the same distances as Djikstra's
+ * algorithm in O(V+E). The queue, distance and predecessor arrays are kept between searches
+ * and only the entries touched by the last search are reset, so searching from many sources
+ * allocates nothing per vertex. An instance must only be used by one thread at a time.
+ */
+public class BreadthFirstSearch {
+
+    /**
+     * Vertices in the order they were reached, the first visitedCount entries are from the last search
+     */
+    private int[] queue = new int[0];
+
+    /**
+     * Distance from the source per vertex index, -1 if not reached by the last search
+     */
+    private int[] distance = new int[0];
+
+    /**
+     * Previous vertex on a shortest path from the source per vertex index, -1 for the source
+     */
+    private int[] predecessor = new int[0];
+
+    /**
+     * Scratch space for the neighbors of the vertex being expanded
+     */
+    private int[] neighbors = new int[16];
+
+    /**
+     * Target of a search with a single target
+     */
+    private final int[] single = new int[1];
+
+    private int visitedCount;
+    private int source = -1;
+
+    /**
+     * Finds the shortest paths from source to every vertex it can reach
+     *
+     * @param graph the graph to search
+     * @param source index of the source vertex
+     */
+    public void search(IndexedGraph<?> graph, int source) {
+        search(graph, source, -1);
+    }
+
+    /**
+     * Finds the shortest paths from source, stopping as soon as the distance of target is known
+     *
+     * @param graph the graph to search
+     * @param source index of the source vertex
+     * @param target index of the vertex to stop at, -1 to search everything source can reach
+     */
+    public void search(IndexedGraph<?> graph, int source, int target) {
+        single[0] = target;
+        search(graph, source, single, target >= 0 ? 1 : 0);
+    }
+
+    /**
+     * Finds the shortest paths from source, stopping as soon as the distances of all the targets are known
+     *
+     * @param graph the graph to search
+     * @param source index of the source vertex
+     * @param targets indices of the vertices to stop at
+     * @param count number of targets, 0 to search everything source can reach
+     */
+    public void search(IndexedGraph<?> graph, int source, int[] targets, int count) {
+        reset(graph.indexBound());
+        this.source = source;
+
+        queue[0] = source;
+        distance[source] = 0;
+        predecessor[source] = -1;
+        int head = 0;
+        int tail = 1;
+        //targets before pending are reached, a reached vertex stays reached
+        int pending = 0;
+
+        while (head < tail) {
+            //the distance of a vertex is final as soon as it is reached
+            while (pending < count && distance[targets[pending]] >= 0)
+                pending++;
+            if (count > 0 && pending == count)
+                break;
+
+            int current = queue[head++];
+            int degree = graph.degree(current);
+            if (degree > neighbors.length)
+                neighbors = new int[Math.max(degree, neighbors.length * 2)];
+            degree = graph.neighborIndices(current, neighbors);
+
+            for (int i = 0; i < degree; i++) {
+                int next = neighbors[i];
+                if (distance[next] < 0) {
+                    distance[next] = distance[current] + 1;
+                    predecessor[next] = current;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        visitedCount = tail;
+    }
+
+    /**
+     * @return index of the source of the last search
+     */
+    public int source() {
+        return source;
+    }
+
+    /**
+     * @param target index of a vertex
+     * @return number of edges on a shortest path from the source to target, -1 if the last search did not reach it
+     */
+    public int distance(int target) {
+        return target < distance.length ? distance[target] : -1;
+    }
+
+    /**
+     * @param target index of a vertex reached by the last search
+     * @return index of the vertex before target on a shortest path from the source, -1 if target is the source
+     */
+    public int predecessor(int target) {
+        return predecessor[target];
+    }
+
+    /**
+     * @return number of vertices reached by the last search, including the source
+     */
+    public int visitedCount() {
+        return visitedCount;
+    }
+
+    /**
+     * @param i position between 0 and {@link #visitedCount()}
+     * @return index of the i-th vertex reached by the last search, closest first
+     */
+    public int visited(int i) {
+        return queue[i];
+    }
+
+    /**
+     * Forgets the last search and makes room for bound vertices
+     */
+    private void reset(int bound) {
+        if (bound > distance.length) {
+            queue = new int[bound];
+            distance = new int[bound];
+            predecessor = new int[bound];
+            Arrays.fill(distance, -1);
+        } else {
+            for (int i = 0; i < visitedCount; i++)
+                distance[queue[i]] = -1;
+        }
+        visitedCount = 0;
+    }
+}
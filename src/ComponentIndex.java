@@ -0,0 +1,306 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       ComponentIndex.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Labels every vertex of a graph with its connected component, so whether two vertices
+ * are connected at all is a comparison of two ints.
+ *
+ * The labels are kept up to date as the graph changes:
+ *  an added edge joining two components relabels the smaller one
+ *  a removed edge is followed by two searches from its ends, taking turns one vertex at a time,
+ *  which stop when they meet or when one of them runs out of vertices. In the latter case the
+ *  component split and the side that ran out gets a new label, so the work is proportional to
+ *  the smaller side.
+ * The graph has to be updated before the matching method is called.
+ */
+public class ComponentIndex {
+
+    /**
+     * Component label per vertex index, -1 if no vertex uses the index
+     */
+    private int[] label = new int[0];
+
+    /**
+     * Number of vertices per component label, 0 for unused labels
+     */
+    private int[] size = new int[0];
+
+    /**
+     * Labels of components which became empty, handed out again before new ones
+     */
+    private int[] freeLabels = new int[0];
+    private int freeCount;
+    private int labelCount;
+    private int componentCount;
+
+    /**
+     * Scratch space of the searches: a queue per side, and seen[v] == epoch + side when a side reached v
+     */
+    private int[] queue1 = new int[0];
+    private int[] queue2 = new int[0];
+    private int[] seen = new int[0];
+    private int epoch;
+    private int[] neighbors = new int[16];
+
+    /**
+     * Labels the components of a graph
+     *
+     * @param graph the graph to label
+     */
+    public ComponentIndex(IndexedGraph<?> graph) {
+        grow(graph.indexBound());
+        for (int root = 0; root < graph.indexBound(); root++) {
+            if (graph.vertexAt(root) == null || label[root] >= 0)
+                continue;
+            int component = newLabel();
+            label[root] = component;
+            queue1[0] = root;
+            int tail = 1;
+            for (int head = 0; head < tail; head++) {
+                int degree = neighborsOf(graph, queue1[head]);
+                for (int i = 0; i < degree; i++) {
+                    if (label[neighbors[i]] < 0) {
+                        label[neighbors[i]] = component;
+                        queue1[tail++] = neighbors[i];
+                    }
+                }
+            }
+            size[component] = tail;
+        }
+    }
+
+    /**
+     * Takes over labels computed earlier, e.g. stored in a {@link GraphSnapshot}
+     *
+     * @param labels component label per vertex index, -1 for an unused index, labels are less than labels.length
+     */
+    public ComponentIndex(int[] labels) {
+        grow(labels.length);
+        size = new int[Math.max(16, labels.length)];
+        freeLabels = new int[size.length];
+        for (int i = 0; i < labels.length; i++) {
+            label[i] = labels[i];
+            if (labels[i] >= 0 && size[labels[i]]++ == 0)
+                componentCount++;
+            labelCount = Math.max(labelCount, labels[i] + 1);
+        }
+        for (int component = labelCount - 1; component >= 0; component--)
+            if (size[component] == 0)
+                freeLabels[freeCount++] = component;
+    }
+
+    /**
+     * @param vertex index of a vertex
+     * @return label of the component of the vertex, -1 if the vertex is not in the graph
+     */
+    public int label(int vertex) {
+        return vertex < label.length ? label[vertex] : -1;
+    }
+
+    /**
+     * @param vertex1 index of a vertex
+     * @param vertex2 index of a vertex
+     * @return true if both vertices are in the graph and there is a path between them
+     */
+    public boolean connected(int vertex1, int vertex2) {
+        return vertex1 >= 0 && vertex2 >= 0 && vertex1 < label.length && vertex2 < label.length
+                && label[vertex1] >= 0 && label[vertex1] == label[vertex2];
+    }
+
+    /**
+     * @param vertex index of a vertex
+     * @return number of vertices in the component of the vertex, 0 if the vertex is not in the graph
+     */
+    public int componentSize(int vertex) {
+        if (vertex < 0 || vertex >= label.length || label[vertex] < 0)
+            return 0;
+        return size[label[vertex]];
+    }
+
+    /**
+     * @return number of connected components
+     */
+    public int componentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Updates the labels after a vertex without edges was added to the graph
+     *
+     * @param graph the graph
+     * @param vertex index of the new vertex
+     */
+    public void vertexAdded(IndexedGraph<?> graph, int vertex) {
+        grow(graph.indexBound());
+        int component = newLabel();
+        label[vertex] = component;
+        size[component] = 1;
+    }
+
+    /**
+     * Updates the labels after a vertex without edges was removed from the graph
+     *
+     * @param vertex index of the removed vertex
+     */
+    public void vertexRemoved(int vertex) {
+        if (vertex < label.length && label[vertex] >= 0) {
+            releaseLabel(label[vertex], 1);
+            label[vertex] = -1;
+        }
+    }
+
+    /**
+     * Updates the labels after an edge was added to the graph
+     *
+     * @param graph the graph, already holding the edge
+     * @param vertex1 index of one end of the edge
+     * @param vertex2 index of the other end of the edge
+     */
+    public void edgeAdded(IndexedGraph<?> graph, int vertex1, int vertex2) {
+        int component1 = label[vertex1];
+        int component2 = label[vertex2];
+        if (component1 == component2)
+            return;
+
+        //relabels the smaller component, searching it from its end of the new edge
+        if (size[component1] < size[component2])
+            relabel(graph, vertex1, component2);
+        else
+            relabel(graph, vertex2, component1);
+    }
+
+    /**
+     * Updates the labels after an edge was removed from the graph
+     *
+     * @param graph the graph, no longer holding the edge
+     * @param vertex1 index of one end of the edge
+     * @param vertex2 index of the other end of the edge
+     */
+    public void edgeRemoved(IndexedGraph<?> graph, int vertex1, int vertex2) {
+        grow(graph.indexBound());
+        epoch += 2;
+        seen[vertex1] = epoch;
+        seen[vertex2] = epoch + 1;
+        queue1[0] = vertex1;
+        queue2[0] = vertex2;
+        int head1 = 0;
+        int tail1 = 1;
+        int head2 = 0;
+        int tail2 = 1;
+
+        //expands one vertex of each side in turn
+        while (head1 < tail1 && head2 < tail2) {
+            int degree = neighborsOf(graph, queue1[head1++]);
+            for (int i = 0; i < degree; i++) {
+                int next = neighbors[i];
+                if (seen[next] == epoch + 1)
+                    return;
+                if (seen[next] != epoch) {
+                    seen[next] = epoch;
+                    queue1[tail1++] = next;
+                }
+            }
+
+            degree = neighborsOf(graph, queue2[head2++]);
+            for (int i = 0; i < degree; i++) {
+                int next = neighbors[i];
+                if (seen[next] == epoch)
+                    return;
+                if (seen[next] != epoch + 1) {
+                    seen[next] = epoch + 1;
+                    queue2[tail2++] = next;
+                }
+            }
+        }
+
+        //the side which ran out of vertices is a component of its own now
+        int[] split = head1 == tail1 ? queue1 : queue2;
+        int count = head1 == tail1 ? tail1 : tail2;
+        int old = label[split[0]];
+        int component = newLabel();
+        for (int i = 0; i < count; i++)
+            label[split[i]] = component;
+        size[component] = count;
+        size[old] -= count;
+    }
+
+    /**
+     * Moves the component of start into component, searching from start
+     */
+    private void relabel(IndexedGraph<?> graph, int start, int component) {
+        int old = label[start];
+        label[start] = component;
+        queue1[0] = start;
+        int tail = 1;
+        for (int head = 0; head < tail; head++) {
+            int degree = neighborsOf(graph, queue1[head]);
+            for (int i = 0; i < degree; i++) {
+                if (label[neighbors[i]] == old) {
+                    label[neighbors[i]] = component;
+                    queue1[tail++] = neighbors[i];
+                }
+            }
+        }
+        size[component] += tail;
+        releaseLabel(old, tail);
+    }
+
+    /**
+     * @return an unused label, counted as a component
+     */
+    private int newLabel() {
+        componentCount++;
+        if (freeCount > 0)
+            return freeLabels[--freeCount];
+        if (labelCount == size.length) {
+            size = Arrays.copyOf(size, Math.max(16, size.length * 2));
+            freeLabels = new int[size.length];
+        }
+        return labelCount++;
+    }
+
+    /**
+     * Takes vertices out of a component, freeing its label when it becomes empty
+     */
+    private void releaseLabel(int component, int count) {
+        size[component] -= count;
+        if (size[component] == 0) {
+            componentCount--;
+            freeLabels[freeCount++] = component;
+        }
+    }
+
+    /**
+     * Copies the neighbors of a vertex into the neighbors scratch array
+     *
+     * @return number of neighbors
+     */
+    private int neighborsOf(IndexedGraph<?> graph, int vertex) {
+        int degree = graph.degree(vertex);
+        if (degree > neighbors.length)
+            neighbors = new int[Math.max(degree, neighbors.length * 2)];
+        return graph.neighborIndices(vertex, neighbors);
+    }
+
+    /**
+     * Makes the arrays indexed by vertex large enough for bound vertices
+     */
+    private void grow(int bound) {
+        if (bound > label.length) {
+            int from = label.length;
+            label = Arrays.copyOf(label, bound);
+            Arrays.fill(label, from, bound, -1);
+            seen = Arrays.copyOf(seen, bound);
+            queue1 = new int[bound];
+            queue2 = new int[bound];
+        }
+    }
+}
@@ -0,0 +1,237 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       CsrGraph.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable undirected and unweighted graph in compressed sparse row form.
+ *
+ * The neighbors of vertex i are targets[offsets[i]] up to targets[offsets[i + 1]],
+ * so a traversal only reads two flat int arrays. Every method that would change the
+ * graph leaves it as it is and reports failure.
+ *
+ * @param <E> type of a vertex
+ */
+public class CsrGraph<E> implements IndexedGraph<E> {
+
+    /**
+     * Instance variables and constructors
+     */
+    private final int bound;
+    private final IntFunction<E> vertices;
+    private final ToIntFunction<E> index;
+    private final int[] offsets;
+    private final int[] targets;
+
+    /**
+     * @param vertices vertex at each index, null for an unused index
+     * @param offsets start of the neighbors of each index in targets, one longer than vertices
+     * @param targets neighbor indices of all vertices back to back
+     */
+    public CsrGraph(ArrayList<E> vertices, int[] offsets, int[] targets) {
+        HashMap<E, Integer> index = new HashMap<E, Integer>();
+        for (int i = 0; i < vertices.size(); i++)
+            if (vertices.get(i) != null)
+                index.put(vertices.get(i), i);
+        this.bound = vertices.size();
+        this.vertices = vertices::get;
+        this.index = vertex -> index.getOrDefault(vertex, -1);
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Graph whose vertices are looked up where they are kept instead of being copied, see {@link WordGraph#freeze()}
+     *
+     * @param bound number of indices
+     * @param vertices vertex at each index below bound, null for an unused index
+     * @param index index of a vertex, -1 if it is null or not in the graph
+     * @param offsets start of the neighbors of each index in targets, bound + 1 long
+     * @param targets neighbor indices of all vertices back to back
+     */
+    public CsrGraph(int bound, IntFunction<E> vertices, ToIntFunction<E> index, int[] offsets, int[] targets) {
+        this.bound = bound;
+        this.vertices = vertices;
+        this.index = index;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Builds the compressed sparse row form of a graph, keeping its indices
+     *
+     * @param graph the graph to copy
+     * @return the frozen copy
+     */
+    public static <E> CsrGraph<E> copyOf(IndexedGraph<E> graph) {
+        int bound = graph.indexBound();
+        ArrayList<E> vertices = new ArrayList<E>(bound);
+        int[] offsets = new int[bound + 1];
+        for (int i = 0; i < bound; i++) {
+            //vertexAt makes a String per call on a WordGraph
+            E vertex = graph.vertexAt(i);
+            vertices.add(vertex);
+            offsets[i + 1] = offsets[i] + (vertex == null ? 0 : graph.degree(i));
+        }
+
+        int[] targets = new int[offsets[bound]];
+        int[] buffer = new int[16];
+        for (int i = 0; i < bound; i++) {
+            int degree = offsets[i + 1] - offsets[i];
+            if (degree > buffer.length)
+                buffer = new int[degree];
+            if (degree > 0)
+                graph.neighborIndices(i, buffer);
+            System.arraycopy(buffer, 0, targets, offsets[i], degree);
+        }
+        return new CsrGraph<E>(vertices, offsets, targets);
+    }
+
+    /**
+     * Always fails, the graph is immutable
+     *
+     * @return null
+     */
+    @Override
+    public E addVertex(E vertex) {
+        return null;
+    }
+
+    /**
+     * Always fails, the graph is immutable
+     *
+     * @return null
+     */
+    @Override
+    public E removeVertex(E vertex) {
+        return null;
+    }
+
+    /**
+     * Always fails, the graph is immutable
+     *
+     * @return false
+     */
+    @Override
+    public boolean addEdge(E vertex1, E vertex2) {
+        return false;
+    }
+
+    /**
+     * Always fails, the graph is immutable
+     *
+     * @return false
+     */
+    @Override
+    public boolean removeEdge(E vertex1, E vertex2) {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isAdjacent(E vertex1, E vertex2) {
+        int x = index.applyAsInt(vertex1);
+        int y = index.applyAsInt(vertex2);
+
+        //both vertices have to be in graph and be different
+        if (x < 0 || y < 0 || x == y)
+            return false;
+
+        for (int i = offsets[x]; i < offsets[x + 1]; i++)
+            if (targets[i] == y)
+                return true;
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterable<E> getNeighbors(E vertex) {
+        int slot = index.applyAsInt(vertex);
+        if (slot < 0)
+            return null;
+
+        ArrayList<E> neighbors = new ArrayList<E>(offsets[slot + 1] - offsets[slot]);
+        for (int i = offsets[slot]; i < offsets[slot + 1]; i++)
+            neighbors.add(vertices.apply(targets[i]));
+        return neighbors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterable<E> getAllVertices() {
+        //Skips the unused indices
+        return () -> IntStream.range(0, bound).mapToObj(vertices).filter(vertex -> vertex != null).iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexOf(E vertex) {
+        return index.applyAsInt(vertex);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E vertexAt(int index) {
+        return vertices.apply(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexBound() {
+        return bound;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int degree(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int neighborIndices(int index, int[] dest) {
+        int degree = offsets[index + 1] - offsets[index];
+        System.arraycopy(targets, offsets[index], dest, 0, degree);
+        return degree;
+    }
+
+    /**
+     * @return start of the neighbors of each index in {@link #targets()}, shared with the graph so do not modify
+     */
+    public int[] offsets() {
+        return offsets;
+    }
+
+    /**
+     * @return neighbor indices of all vertices back to back, shared with the graph so do not modify
+     */
+    public int[] targets() {
+        return targets;
+    }
+}
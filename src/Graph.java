@@ -8,6 +8,7 @@
 /////////////////////////////////////////////////////////////////////////////////
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
@@ -23,17 +24,33 @@ import javax.swing.text.html.HTMLDocument.Iterator;
  * @author sapan (sapan@cs.wisc.edu)
  * 
  */
-public class Graph<E> implements GraphADT<E> {
+public class Graph<E> implements IndexedGraph<E> {
     
     /**
      * Instance variables and constructors
      */
 	private ArrayList<E> Vertices;
-	private ArrayList<ArrayList<Integer>> Matrix;
+	
+	/**
+	 * Adjacency matrix stored as bitset rows, bit j of Matrix[i] is set when vertex i and
+	 * vertex j are adjacent. Every row is as wide as the number of rows, both double together.
+	 */
+	private long[][] Matrix;
+	
+	/**
+	 * Maps each vertex to its row/column in Matrix. A removed vertex leaves a null slot
+	 * behind (kept in FreeSlots for reuse) so the index of every other vertex never changes.
+	 */
+	private HashMap<E, Integer> Index;
+	private ArrayList<Integer> FreeSlots;
+	
+	private static final int INITIAL_CAPACITY = 64;
 	
 	public Graph() {
 		Vertices = new ArrayList<E>();
-		Matrix = new ArrayList<ArrayList<Integer>>();
+		Matrix = new long[INITIAL_CAPACITY][];
+		Index = new HashMap<E, Integer>();
+		FreeSlots = new ArrayList<Integer>();
 	}
 	
     /**
@@ -45,19 +62,26 @@ public class Graph<E> implements GraphADT<E> {
         	return null;
         
         //Ensures doesn't add duplicate vertex
-        for(int i = 0; i < Vertices.size(); i++) {
-        	if(Vertices.get(i).equals(vertex))
-        		return null;
+        if (Index.containsKey(vertex))
+            return null;
+        
+        //Reuses a slot left by a removed vertex, its row/column is already all 0's
+        if (!FreeSlots.isEmpty()) {
+            int slot = FreeSlots.remove(FreeSlots.size() - 1);
+            Vertices.set(slot, vertex);
+            Index.put(vertex, slot);
+            return vertex;
         }
         
+        int slot = Vertices.size();
+        if (slot == Matrix.length)
+            grow();
+        
+        Index.put(vertex, slot);
         Vertices.add(vertex);
         
-        //Adds new row/column of 0's for adjacency matrix to utilize
-        Matrix.add(new ArrayList<Integer>(Vertices.size()));
-        for (int i = 0; i < Vertices.size(); i++) {
-            Matrix.get(Vertices.size() - 1).add(i, 0);
-            Matrix.get(i).add(Vertices.size() - 1, 0);
-        }
+        //Adds new row of 0's for adjacency matrix to utilize, columns are already there
+        Matrix[slot] = new long[words(Matrix.length)];
         
         return vertex;
     }
@@ -70,23 +94,19 @@ public class Graph<E> implements GraphADT<E> {
         if(vertex == null)		
         	return null;
         
-        for(int i = 0; i < Vertices.size(); i++) {
-            
-            //Finds vertex in Vertices ArrayList
-        	if(Vertices.get(i).equals(vertex)) {
-        	    
-        	    //Removes row/column from adjacency matrix
-        		Matrix.remove(i);
-        		for(int j=0; j < Matrix.size(); j++) {
-        			Matrix.get(j).remove(i);
-        		}
-        		
-        		Vertices.remove(i);
-        		return vertex;
-        	}
-        }
+        Integer i = Index.remove(vertex);
+        if (i == null)
+            return null;
+        
+        //Clears column of every neighbor, then the row itself so the slot can be reused
+        long[] row = Matrix[i];
+        for (int j = nextSetBit(row, 0); j >= 0; j = nextSetBit(row, j + 1))
+            clear(Matrix[j], i);
+        Arrays.fill(row, 0L);
         
-        return null;
+        Vertices.set(i, null);
+        FreeSlots.add(i);
+        return vertex;
     }
 
     /**
@@ -94,36 +114,17 @@ public class Graph<E> implements GraphADT<E> {
      */
     @Override
     public boolean addEdge(E vertex1, E vertex2) {
-    	if(vertex1.equals(vertex2))
-    		return false;
+    	Integer xCor = Index.get(vertex1);
+    	Integer yCor = Index.get(vertex2);
     	
-    	int count = 0;
-    	int xCor = 0;
-    	int yCor = 0;
-    	//checks if first vertex is in graph
-    	for(int i = 0; i < Vertices.size(); i++) {
-    		if(Vertices.get(i).equals(vertex1)) {
-    			count++;
-    			xCor = i;
-    			break;
-    		}
-    	}
-    	//checks if second vertex is in graph
-    	for(int i =0;i<Vertices.size();i++) {
-    		if(Vertices.get(i).equals(vertex2)) {
-    			count++;
-    			yCor = i;
-    			break;
-    		}
-    	}
-    	//count == 2 means both vertices are in graph
-    	if(count == 2) {
-    	    //adjacency matrix reflects across y = x
-    		Matrix.get(xCor).set(yCor,1);
-    		Matrix.get(yCor).set(xCor, 1);
-    		return true;
-    	}
-        return false;
+    	//both vertices have to be in graph and be different
+    	if (xCor == null || yCor == null || xCor.equals(yCor))
+    	    return false;
+    	
+    	//adjacency matrix reflects across y = x
+    	set(Matrix[xCor], yCor);
+    	set(Matrix[yCor], xCor);
+    	return true;
     }    
 
     /**
@@ -131,35 +132,17 @@ public class Graph<E> implements GraphADT<E> {
      */
     @Override
     public boolean removeEdge(E vertex1, E vertex2) {
-    	if(vertex1.equals(vertex2))
-    		return false;
+    	Integer xCor = Index.get(vertex1);
+    	Integer yCor = Index.get(vertex2);
     	
-    	int count = 0;
-    	int xCor = 0;
-    	int yCor = 0;
-    	//checks if first vertex is in graph
-    	for(int i =0;i<Vertices.size();i++) {
-    		if(Vertices.get(i).equals(vertex1)) {
-    			count++;
-    			xCor = i;
-    		}
-    	}
-    	//checks if second vertex is in graph
-    	for(int i =0;i<Vertices.size();i++) {
-    		if(Vertices.get(i).equals(vertex2)) {
-    			count++;
-    			yCor = i;
-    		}
-    	}
-
-    	//count == 2 means both vertices are in graph
-    	if(count == 2) {
-            //adjacency matrix reflects across y = x
-    		Matrix.get(xCor).set(yCor,0);
-    		Matrix.get(yCor).set(xCor,0);
-    		return true;
-    	}
-        return false;
+    	//both vertices have to be in graph and be different
+    	if (xCor == null || yCor == null || xCor.equals(yCor))
+    	    return false;
+    	
+        //adjacency matrix reflects across y = x
+    	clear(Matrix[xCor], yCor);
+    	clear(Matrix[yCor], xCor);
+    	return true;
     }
 
     /**
@@ -167,34 +150,15 @@ public class Graph<E> implements GraphADT<E> {
      */
     @Override
     public boolean isAdjacent(E vertex1, E vertex2) {
-    	if(vertex1.equals(vertex2))
-    		return false;
+    	Integer xCor = Index.get(vertex1);
+    	Integer yCor = Index.get(vertex2);
     	
-    	int count = 0;
-    	int xCor = 0;
-    	int yCor = 0;
-    	//checks if first vertex is in graph
-    	for(int i =0;i<Vertices.size();i++) {
-    		if(Vertices.get(i).equals(vertex1)) {
-    			count++;
-    			xCor = i;
-    		}
-    	}
-    	//checks if second vertex is in graph
-    	for(int i =0;i<Vertices.size();i++) {
-    		if(Vertices.get(i).equals(vertex2)) {
-    			count++;
-    			yCor = i;
-    		}
-    	}
-
-    	//count == 2 means both vertices are in graph
-    	if(count == 2) {
-    	    // 1 in adjacency matrix means vertices are adjacent
-    		if(Matrix.get(xCor).get(yCor) == 1)    			
-    		    return true;
-    	}
-        return false;  	
+    	//both vertices have to be in graph and be different
+    	if (xCor == null || yCor == null || xCor.equals(yCor))
+    	    return false;
+    	
+    	// set bit in adjacency matrix means vertices are adjacent
+    	return get(Matrix[xCor], yCor);
     }
 
     /**
@@ -203,30 +167,17 @@ public class Graph<E> implements GraphADT<E> {
     @Override
     public Iterable<E> getNeighbors(E vertex) {
     	ArrayList<E> neighbors = new ArrayList<E>();
-    	int index = -1;
+    	Integer index = Index.get(vertex);
     	
-    	//Finds vertex in Vertices ArrayList
-    	for(int i = 0; i < Vertices.size(); i++) {
-    		if(Vertices.get(i).equals(vertex)) {
-    			index = i;
-    			break;
-    		}
-    	}
-    	//index of -1 means vertex does not exist
-    	if (index == -1) {
+    	//null index means vertex does not exist
+    	if (index == null) {
     	    return null;
     	}
     	
-    	//Goes through vertex's column in adjacency matrix
-    	for(int i = 0; i < Matrix.get(index).size(); i++) {
-    	    //Checks if there's a neighbor at each spot
-    		if(Matrix.get(index).get(i) == 1) {
-    		    //Ensures does not pass self as neighbor
-    		    if (Vertices.get(i).equals(vertex))
-    		        continue;
-    			neighbors.add(Vertices.get(i));
-    		}
-    	}
+    	//Goes through the set bits of vertex's row in adjacency matrix
+    	long[] row = Matrix[index];
+    	for (int i = nextSetBit(row, 0); i >= 0; i = nextSetBit(row, i + 1))
+    	    neighbors.add(Vertices.get(i));
     	
     	return neighbors;
     }
@@ -236,7 +187,105 @@ public class Graph<E> implements GraphADT<E> {
      */
     @Override
     public Iterable<E> getAllVertices() {
-    	return Vertices;		   
+        //Skips the empty slots left by removed vertices
+    	return () -> Vertices.stream().filter(vertex -> vertex != null).iterator();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexOf(E vertex) {
+        Integer index = Index.get(vertex);
+        return index == null ? -1 : index;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E vertexAt(int index) {
+        return Vertices.get(index);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexBound() {
+        return Vertices.size();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int degree(int index) {
+        int count = 0;
+        for (long bits : Matrix[index])
+            count += Long.bitCount(bits);
+        return count;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int neighborIndices(int index, int[] dest) {
+        int count = 0;
+        long[] row = Matrix[index];
+        for (int i = nextSetBit(row, 0); i >= 0; i = nextSetBit(row, i + 1))
+            dest[count++] = i;
+        return count;
+    }
+    
+    /**
+     * Doubles the number of rows and the width of every existing row
+     */
+    private void grow() {
+        int capacity = Matrix.length * 2;
+        Matrix = Arrays.copyOf(Matrix, capacity);
+        for (int i = 0; i < Vertices.size(); i++)
+            Matrix[i] = Arrays.copyOf(Matrix[i], words(capacity));
+    }
+    
+    /**
+     * @param bits number of bits
+     * @return number of longs needed to hold that many bits
+     */
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+    
+    private static boolean get(long[] row, int bit) {
+        return (row[bit >>> 6] & (1L << bit)) != 0;
+    }
+    
+    private static void set(long[] row, int bit) {
+        row[bit >>> 6] |= 1L << bit;
+    }
+    
+    private static void clear(long[] row, int bit) {
+        row[bit >>> 6] &= ~(1L << bit);
+    }
+    
+    /**
+     * @param row bitset row of the adjacency matrix
+     * @param from first bit to look at
+     * @return index of the first set bit at or after from, -1 if there is none
+     */
+    private static int nextSetBit(long[] row, int from) {
+        int word = from >>> 6;
+        if (word >= row.length)
+            return -1;
+        long bits = row[word] & (-1L << from);
+        while (true) {
+            if (bits != 0)
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            if (++word == row.length)
+                return -1;
+            bits = row[word];
+        }
     }
 
 }
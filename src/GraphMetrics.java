@@ -0,0 +1,89 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       GraphMetrics.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Receives timings and counts from a {@link GraphProcessor}, see {@link GraphProcessor#setMetrics(GraphMetrics)}.
+ *
+ * Every method does nothing by default, so an implementation only overrides what it records.
+ * The processor does not even read the clock while its metrics are {@link #NONE}.
+ * Methods may be called from several threads at once.
+ * {@link MetricsRecorder} keeps totals and query latency histograms in memory, and {@link JfrMetrics}
+ * also emits them as JDK Flight Recorder events.
+ */
+public interface GraphMetrics {
+
+    /**
+     * Metrics which record nothing, the default of a GraphProcessor
+     */
+    GraphMetrics NONE = new GraphMetrics() {
+    };
+
+    /**
+     * Steps of building the graph and its paths
+     */
+    enum Phase {
+        /** reading the dictionary file */
+        READ,
+        /** adding the words as vertices */
+        VERTEX_INSERT,
+        /** finding the adjacent words and adding the edges */
+        EDGE_DISCOVERY,
+        /** labelling the connected components */
+        COMPONENTS,
+        /** shortestPathPrecomputation */
+        PRECOMPUTE
+    }
+
+    /**
+     * Things counted while building the graph and answering queries
+     */
+    enum Counter {
+        /** words read from a dictionary */
+        WORDS_READ,
+        /** candidate words compared with a word to confirm they are adjacent */
+        ADJACENCY_CHECKS,
+        /** edges added to the graph */
+        EDGES_ADDED,
+        /** words taken out of a search queue, by precomputation and by searches between two words */
+        NODES_EXPANDED,
+        /** LAZY queries answered from a cached search tree */
+        CACHE_HITS,
+        /** LAZY queries which had to search */
+        CACHE_MISSES
+    }
+
+    /**
+     * @param phase the phase which finished
+     * @param nanos how long it took in nanoseconds
+     */
+    default void phase(Phase phase, long nanos) {
+    }
+
+    /**
+     * @param counter what was counted
+     * @param amount how many to add
+     */
+    default void count(Counter counter, long amount) {
+    }
+
+    /**
+     * @param mode how the query was answered
+     * @param nanos how long getShortestPath or getShortestDistance took in nanoseconds
+     * @param found true if the words are connected
+     */
+    default void query(GraphProcessor.QueryMode mode, long nanos, boolean found) {
+    }
+
+    /**
+     * @param phase the phase which failed
+     * @param exception why it failed
+     */
+    default void failed(Phase phase, Exception exception) {
+    }
+}
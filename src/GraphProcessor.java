@@ -8,62 +8,243 @@
 /////////////////////////////////////////////////////////////////////////////////
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * This class adds additional functionality to the graph as a whole.
  */
 public class GraphProcessor {
     
-    protected class vertexNode{
-        String vertex;
-        int weight;
-        String predecessor;
-        
-        public vertexNode(String vertex) {
-            this.vertex = vertex;
-            weight = Integer.MAX_VALUE;
-        }
-        
-        @Override
-        public boolean equals(Object n) {
-            if (n instanceof vertexNode) {
-                if (((vertexNode) n).vertex == this.vertex)
-                    return true;
-                else
-                    return false;
-            } else {
-                return false;
-            }
-        }
+    /**
+     * How getShortestPath and getShortestDistance find their answers
+     */
+    public enum QueryMode {
+        /** read the tables filled by {@link GraphProcessor#shortestPathPrecomputation()} */
+        PRECOMPUTED,
+        /** search from the first word on demand, keeping the most recently used search trees in a {@link PathTreeCache} */
+        LAZY,
+        /** search from both words on demand with a {@link BidirectionalSearch}, nothing is precomputed or cached */
+        BIDIRECTIONAL,
+        /**
+         * search from the first word towards the second on demand with an {@link AStarSearch}, nothing is precomputed or cached.
+         * Its heuristic assumes every edge joins words one edit apart, so while addEdge has joined other words
+         * queries are answered like {@link #BIDIRECTIONAL}
+         */
+        ASTAR
+    }
+    
+    /**
+     * Receives the progress of shortestPathPrecomputation, possibly from several threads at once
+     */
+    public interface ProgressListener {
+        /**
+         * @param done number of source words whose paths are computed
+         * @param total number of source words to compute
+         */
+        void progress(int done, int total);
     }
     
     private int numOfVertices;
     
     /**
-     * Data structure to hold shortest path between every vertices
+     * Data structure to hold shortest path between every vertices, null until shortestPathPrecomputation runs
+     * or a {@link MappedPathTable} is loaded
      */
-    HashMap<String, ArrayList<String>> shortestPath = new HashMap<String, ArrayList<String>>();
+    private PathStore shortestPath;
     
     /**
      * Graph which stores the dictionary words and their associated connections
      */
-    private GraphADT<String> graph;
+    private IndexedGraph<String> graph;
+    
+    /**
+     * Pool to spread work across, null to do all the work on the calling thread
+     */
+    private ForkJoinPool pool;
+    
+    private ProgressListener progressListener;
+    
+    private QueryMode queryMode = QueryMode.PRECOMPUTED;
+    
+    /**
+     * Search trees used by {@link QueryMode#LAZY}
+     */
+    private PathTreeCache pathTrees = new PathTreeCache(DEFAULT_CACHE_CAPACITY, DEFAULT_CACHE_BYTES);
+    
+    private static final int DEFAULT_CACHE_CAPACITY = 1024;
+    
+    /**
+     * Default bytes of search trees kept, 1024 trees of a graph of 8192 words or 27 trees of 300000 words
+     */
+    private static final long DEFAULT_CACHE_BYTES = 64L << 20;
+    
+    /**
+     * Search used by {@link QueryMode#BIDIRECTIONAL}
+     */
+    private BidirectionalSearch pairSearch = new BidirectionalSearch();
+    
+    /**
+     * Search used by {@link QueryMode#ASTAR}
+     */
+    private AStarSearch heuristicSearch = new AStarSearch();
+    
+    /**
+     * Number of edges added by addEdge between words which are not one edit apart, across which
+     * the heuristic of {@link QueryMode#ASTAR} would overestimate the distance
+     */
+    private int shortcutEdges;
+    
+    /**
+     * Search from the shared word of a group of pairs in getShortestPaths
+     */
+    private BreadthFirstSearch batchSearch = new BreadthFirstSearch();
+    
+    /**
+     * Number of words the last query had to look at
+     */
+    private int lastExploredCount;
+    
+    /**
+     * Receives the timings and counts, {@link GraphMetrics#NONE} when nobody is interested
+     */
+    private GraphMetrics metrics = GraphMetrics.NONE;
+    
+    /**
+     * Repairs the precomputed tables after single updates, see {@link #setIncrementalUpdates(boolean)}
+     */
+    private PathTableUpdater updater = new PathTableUpdater();
+    
+    private boolean incrementalUpdates = true;
+    
+    /**
+     * Index of the words in the graph used by addWord to find neighbors, null until first needed
+     */
+    private WildcardIndex wordIndex;
+    
+    /**
+     * Connected components of the graph, answering queries between words without a path before any search,
+     * null until first needed
+     */
+    private ComponentIndex components;
+    
+    /**
+     * Last version made by {@link #publish()}, read by other threads without locking
+     */
+    private volatile GraphVersion published;
 
     /**
-     * Constructor for this class. Initializes instances variables to set the starting state of the object
+     * Constructor for this class. Initializes instances variables to set the starting state of the object.
+     * The words are stored in a {@link WordGraph}, which numbers them and keeps them packed in a {@link WordTable}.
      */
     public GraphProcessor() {
-        this.graph = new Graph<String>();
+        this(new WordGraph());
+    }
+    
+    /**
+     * Constructor for this class which stores the words in the given graph,
+     * e.g. a {@link SparseGraph} for large dictionaries where words only have a few neighbors
+     * 
+     * @param graph empty graph to populate
+     */
+    public GraphProcessor(IndexedGraph<String> graph) {
+        this.graph = graph;
+    }
+    
+    /**
+     * Sets the pool that populateGraph and shortestPathPrecomputation spread their work across.
+     * The graph is still only updated from the calling thread.
+     * 
+     * @param pool the pool to use, null to do all the work on the calling thread
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+    
+    /**
+     * @param progressListener told how far shortestPathPrecomputation is, null for nobody
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+    
+    /**
+     * Sets where the phase timings of populateGraph and shortestPathPrecomputation, the counters and the query
+     * latencies go, e.g. a {@link MetricsRecorder} or {@link JfrMetrics}. Nothing is timed or counted with
+     * {@link GraphMetrics#NONE}, the default.
+     * 
+     * @param metrics the metrics to record to, null for none
+     */
+    public void setMetrics(GraphMetrics metrics) {
+        this.metrics = metrics == null ? GraphMetrics.NONE : metrics;
+    }
+    
+    /**
+     * @return number of words the last {@link QueryMode#BIDIRECTIONAL} or {@link QueryMode#ASTAR} query looked at,
+     * 0 after queries answered from the precomputed tables or the cache
+     */
+    public int getLastExploredCount() {
+        return lastExploredCount;
+    }
+    
+    /**
+     * Sets how queries are answered. {@link QueryMode#LAZY} does not need shortestPathPrecomputation.
+     * 
+     * @param queryMode the query mode
+     */
+    public void setQueryMode(QueryMode queryMode) {
+        this.queryMode = queryMode;
+    }
+    
+    /**
+     * Replaces the search tree cache used by {@link QueryMode#LAZY} with an empty one, keeping
+     * the default bound on the bytes of its trees
+     * 
+     * @param capacity most search trees to keep
+     */
+    public void setCacheCapacity(int capacity) {
+        setCacheCapacity(capacity, DEFAULT_CACHE_BYTES);
+    }
+    
+    /**
+     * Replaces the search tree cache used by {@link QueryMode#LAZY} with an empty one
+     * 
+     * @param capacity most search trees to keep
+     * @param maxBytes most bytes of search trees to keep, each tree takes 8 bytes per vertex index
+     */
+    public void setCacheCapacity(int capacity, long maxBytes) {
+        this.pathTrees = new PathTreeCache(capacity, maxBytes);
+    }
+    
+    /**
+     * @return the search tree cache used by {@link QueryMode#LAZY}, to read its hit and miss counts
+     */
+    public PathTreeCache getPathTreeCache() {
+        return pathTrees;
+    }
+    
+    /**
+     * Sets what addVertex, removeVertex, addEdge and removeEdge do to the precomputed tables.
+     * When on, the tables are repaired in place by a {@link PathTableUpdater}, touching only the
+     * sources whose paths change. When off, the tables are dropped and shortestPathPrecomputation
+     * has to run again before {@link QueryMode#PRECOMPUTED} queries find paths.
+     * 
+     * @param incrementalUpdates true to repair the tables, false to drop them
+     */
+    public void setIncrementalUpdates(boolean incrementalUpdates) {
+        this.incrementalUpdates = incrementalUpdates;
     }
         
     /**
@@ -73,33 +254,369 @@ public class GraphProcessor {
      * 
      * Reads a word from the file and adds it as a vertex to a graph.
      * Repeat for all words.
+     * The words are read by {@link WordProcessor#loadWordTable(String)}, so a word listed twice is only added once.
      * 
      * For all possible pairs of vertices, finds if the pair of vertices is adjacent {@link WordProcessor#isAdjacent(String, String)}
      * If a pair is adjacent, adds an undirected and unweighted edge between the pair of vertices in the graph.
+     * Adjacent pairs are looked up in a {@link WildcardIndex} of the words rather than testing every pair,
+     * with a {@link ParallelEdgeFinder} when a pool was set through {@link #setPool(ForkJoinPool)}.
+     * A {@link WordGraph} is filled by word id straight from the loaded table, so the words are never made into Strings.
      * 
      * @param filepath file path to the dictionary
      * @return Integer the number of vertices (words) added
      * @throws IOException 
      */
     public Integer populateGraph(String filepath) {
-        Stream<String> wordStream;
+        long edgesBefore = metrics == GraphMetrics.NONE ? 0 : edgeCount();
+        long start = startTimer();
         try {
-            wordStream = WordProcessor.getWordStream(filepath);
-            List<String> wordString = wordStream.collect(Collectors.toList());
-            this.numOfVertices = wordString.size();
-            
-            for(String word : wordString)
-                graph.addVertex(word);
+            WordTable table = WordProcessor.loadWordTable(filepath);
+            this.numOfVertices = table.size();
+            start = lap(GraphMetrics.Phase.READ, start);
+            metrics.count(GraphMetrics.Counter.WORDS_READ, table.size());
             
-            for(String word1 : wordString)
-                for(String word2 : wordString)
-                    if (WordProcessor.isAdjacent(word1, word2))
-                        graph.addEdge(word1, word2);
+            long compared;
+            if (graph instanceof WordGraph && pool == null) {
+                //adds the words and their edges by id, without making a String per word
+                WordGraph words = (WordGraph) graph;
+                int[] ids = new int[table.size()];
+                for (int i = 0; i < ids.length; i++)
+                    ids[i] = words.addVertex(table.bytes(), table.offset(i), table.length(i));
+                start = lap(GraphMetrics.Phase.VERTEX_INSERT, start);
+                
+                WildcardIndex index = wordIndex();
+                for (int id : ids)
+                    index.add(id);
+                compared = index.forEachEdgeIds(words::addEdge);
+            } else if (pool != null) {
+                List<String> wordString = table.words();
+                for(String word : wordString)
+                    graph.addVertex(word);
+                start = lap(GraphMetrics.Phase.VERTEX_INSERT, start);
+                
+                LongAdder checks = new LongAdder();
+                List<String> edges = ParallelEdgeFinder.findEdges(wordString, pool, checks);
+                for (int i = 0; i < edges.size(); i += 2)
+                    graph.addEdge(edges.get(i), edges.get(i + 1));
+                wordIndex = null;
+                compared = checks.sum();
+            } else {
+                List<String> wordString = table.words();
+                WildcardIndex index = wordIndex();
+                for(String word : wordString) {
+                    graph.addVertex(word);
+                    index.add(word);
+                }
+                start = lap(GraphMetrics.Phase.VERTEX_INSERT, start);
+                
+                compared = index.forEachEdge(graph::addEdge);
+            }
+            start = lap(GraphMetrics.Phase.EDGE_DISCOVERY, start);
+            metrics.count(GraphMetrics.Counter.ADJACENCY_CHECKS, compared);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            metrics.failed(GraphMetrics.Phase.READ, e);
+        }
+        pathTrees.clear();
+        shortestPath = null;
+        components = new ComponentIndex(graph);
+        lap(GraphMetrics.Phase.COMPONENTS, start);
+        if (metrics != GraphMetrics.NONE)
+            metrics.count(GraphMetrics.Counter.EDGES_ADDED, edgeCount() - edgesBefore);
+        return numOfVertices;
+    }
+    
+    /**
+     * Builds the graph like {@link #populateGraph(String)}, reusing a {@link GraphSnapshot} of it between runs.
+     * 
+     * If snapshotPath holds a snapshot built from the same dictionary, checked with the CRC32 of the file,
+     * the graph is loaded from the snapshot instead of being built again. Otherwise the graph is built
+     * from the dictionary and written to snapshotPath for the next run, which also replaces a snapshot
+     * that cannot be read.
+     * A graph loaded from a snapshot replaces the current one with a {@link WordGraph}, which addWord,
+     * addEdge and the other update methods change like a graph built from the dictionary.
+     * Snapshots hold the words of a WordGraph, so a processor storing its words in another graph
+     * always builds the graph from the dictionary and neither reads nor writes a snapshot.
+     * 
+     * @param filepath file path to the dictionary
+     * @param snapshotPath file path to the snapshot
+     * @return Integer the number of vertices (words) in the graph
+     */
+    public Integer populateGraph(String filepath, String snapshotPath) {
+        if (!(graph instanceof WordGraph))
+            return populateGraph(filepath);
+        long checksum;
+        GraphSnapshot snapshot = null;
+        long start = startTimer();
+        try {
+            checksum = GraphSnapshot.checksum(filepath);
+        } catch (IOException e) {
+            //without the checksum of the dictionary no snapshot can be matched to it or written for it
+            System.out.println(e.getMessage());
+            metrics.failed(GraphMetrics.Phase.READ, e);
+            return populateGraph(filepath);
+        }
+        try {
+            if (Files.exists(Paths.get(snapshotPath)))
+                snapshot = GraphSnapshot.load(snapshotPath, checksum);
         } catch (IOException e) {
+            //a damaged snapshot is replaced by the one written below
             System.out.println(e.getMessage());
+            metrics.failed(GraphMetrics.Phase.READ, e);
+        }
+        
+        if (snapshot != null) {
+            lap(GraphMetrics.Phase.READ, start);
+            graph = snapshot.graph();
+            shortcutEdges = 0;
+            components = snapshot.labels() == null ? null : new ComponentIndex(snapshot.labels());
+            wordIndex = null;
+            pathTrees.clear();
+            shortestPath = null;
+            numOfVertices = graph.indexBound();
+            return numOfVertices;
+        }
+        
+        populateGraph(filepath);
+        try {
+            GraphSnapshot.write(snapshotPath, graph, components(), checksum);
+        } catch (IOException e) {
+            //the snapshot stands in for reading the dictionary, so its failures are counted with READ
+            System.out.println(e.getMessage());
+            metrics.failed(GraphMetrics.Phase.READ, e);
         }
         return numOfVertices;
     }
+    
+    /**
+     * Adds a word to the graph together with an edge to every adjacent word already in the graph.
+     * The neighbors are looked up in a {@link WildcardIndex}, so this takes time proportional to
+     * the length and the neighborhood of the word rather than to the number of words.
+     * The shortest paths are kept up to date like by addVertex and addEdge.
+     * 
+     * @param word the word to add, trimmed and converted to uppercase like the words of the dictionary
+     * @return true if the word was added, false if it is null, empty or already in the graph
+     */
+    public boolean addWord(String word) {
+        if (word == null)
+            return false;
+        word = word.trim().toUpperCase();
+        if (word.isEmpty() || !addVertex(word))
+            return false;
+        
+        for (String neighbor : wordIndex().neighbors(word))
+            addEdge(word, neighbor);
+        return true;
+    }
+    
+    /**
+     * Removes a word and its edges from the graph, keeping the shortest paths up to date
+     * 
+     * @param word the word to remove, trimmed and converted to uppercase like the words of the dictionary
+     * @return true if the word was removed, false if it is not in the graph
+     */
+    public boolean removeWord(String word) {
+        if (word == null)
+            return false;
+        return removeVertex(word.trim().toUpperCase());
+    }
+    
+    /**
+     * Adds every word of a collection, see {@link #addWord(String)}
+     * 
+     * @param words the words to add
+     * @return number of words added
+     */
+    public int addWords(Collection<String> words) {
+        int added = 0;
+        for (String word : words)
+            if (addWord(word))
+                added++;
+        return added;
+    }
+    
+    /**
+     * Removes every word of a collection, see {@link #removeWord(String)}
+     * 
+     * @param words the words to remove
+     * @return number of words removed
+     */
+    public int removeWords(Collection<String> words) {
+        int removed = 0;
+        for (String word : words)
+            if (removeWord(word))
+                removed++;
+        return removed;
+    }
+    
+    /**
+     * @return the precomputed table to repair after an update, null after dropping the precomputed paths
+     * if there are none or they cannot be repaired
+     */
+    private PathTable tableToRepair() {
+        if (shortestPath instanceof PathTable && incrementalUpdates)
+            return (PathTable) shortestPath;
+        shortestPath = null;
+        return null;
+    }
+    
+    /**
+     * @return the current time in nanoseconds to time a phase from, 0 when no metrics are recorded
+     */
+    private long startTimer() {
+        return metrics == GraphMetrics.NONE ? 0 : System.nanoTime();
+    }
+    
+    /**
+     * Records the time since start as the time of a phase
+     * 
+     * @param phase the phase which finished
+     * @param start time the phase started, from startTimer or an earlier lap
+     * @return the current time, to time the next phase from
+     */
+    private long lap(GraphMetrics.Phase phase, long start) {
+        if (metrics == GraphMetrics.NONE)
+            return 0;
+        long now = System.nanoTime();
+        metrics.phase(phase, now - start);
+        return now;
+    }
+    
+    /**
+     * @return number of edges of the graph
+     */
+    private long edgeCount() {
+        long degrees = 0;
+        for (int i = 0; i < graph.indexBound(); i++)
+            degrees += graph.degree(i);
+        return degrees / 2;
+    }
+    
+    /**
+     * @return the connected components of the graph, labelled the first time they are needed
+     */
+    private ComponentIndex components() {
+        if (components == null)
+            components = new ComponentIndex(graph);
+        return components;
+    }
+    
+    /**
+     * @return the index of the words in the graph, built from the graph the first time it is needed
+     */
+    private WildcardIndex wordIndex() {
+        if (wordIndex == null && graph instanceof WordGraph) {
+            //shares the ids of the graph
+            WordGraph words = (WordGraph) graph;
+            wordIndex = new WildcardIndex(words.words());
+            for (int id = 0; id < words.indexBound(); id++)
+                if (words.contains(id))
+                    wordIndex.add(id);
+        } else if (wordIndex == null) {
+            wordIndex = new WildcardIndex();
+            for (String word : graph.getAllVertices())
+                wordIndex.add(word);
+        }
+        return wordIndex;
+    }
+    
+    /**
+     * Adds a word to the graph without any edges, keeping the shortest paths up to date
+     * 
+     * @param word the word to add
+     * @return true if the word was added, false if it is null or already in the graph
+     */
+    public boolean addVertex(String word) {
+        if (word == null || graph.indexOf(word) >= 0 || graph.addVertex(word) == null)
+            return false;
+        numOfVertices++;
+        if (wordIndex != null)
+            wordIndex.add(word);
+        if (components != null)
+            components.vertexAdded(graph, graph.indexOf(word));
+        pathTrees.clear();
+        PathTable table = tableToRepair();
+        if (table != null)
+            updater.vertexAdded(table, graph.indexOf(word));
+        return true;
+    }
+    
+    /**
+     * Removes a word and its edges from the graph, keeping the shortest paths up to date
+     * 
+     * @param word the word to remove
+     * @return true if the word was removed, false if it is not in the graph
+     */
+    public boolean removeVertex(String word) {
+        int vertex = graph.indexOf(word);
+        if (vertex < 0)
+            return false;
+        
+        //removes the edges one at a time so each repair only sees a single change
+        int[] neighbors = new int[graph.degree(vertex)];
+        int degree = graph.neighborIndices(vertex, neighbors);
+        for (int i = 0; i < degree; i++)
+            removeEdge(word, graph.vertexAt(neighbors[i]));
+        
+        if (graph.removeVertex(word) == null)
+            return false;
+        numOfVertices--;
+        if (wordIndex != null)
+            wordIndex.remove(word);
+        if (components != null)
+            components.vertexRemoved(vertex);
+        pathTrees.clear();
+        PathTable table = tableToRepair();
+        if (table != null)
+            updater.vertexRemoved(table, vertex);
+        return true;
+    }
+    
+    /**
+     * Adds an edge between two words of the graph, keeping the shortest paths up to date
+     * 
+     * @param word1 first word
+     * @param word2 second word
+     * @return true if the edge was added, false if a word is not in the graph or the edge already exists
+     */
+    public boolean addEdge(String word1, String word2) {
+        int vertex1 = graph.indexOf(word1);
+        int vertex2 = graph.indexOf(word2);
+        if (vertex1 < 0 || vertex2 < 0 || vertex1 == vertex2 || graph.isAdjacent(word1, word2) || !graph.addEdge(word1, word2))
+            return false;
+        if (!WordProcessor.isAdjacent(word1, word2))
+            shortcutEdges++;
+        if (components != null)
+            components.edgeAdded(graph, vertex1, vertex2);
+        pathTrees.clear();
+        PathTable table = tableToRepair();
+        if (table != null)
+            updater.edgeAdded(graph, table, vertex1, vertex2);
+        return true;
+    }
+    
+    /**
+     * Removes the edge between two words of the graph, keeping the shortest paths up to date
+     * 
+     * @param word1 first word
+     * @param word2 second word
+     * @return true if the edge was removed, false if there is no such edge
+     */
+    public boolean removeEdge(String word1, String word2) {
+        int vertex1 = graph.indexOf(word1);
+        int vertex2 = graph.indexOf(word2);
+        if (vertex1 < 0 || vertex2 < 0 || !graph.isAdjacent(word1, word2) || !graph.removeEdge(word1, word2))
+            return false;
+        if (shortcutEdges > 0 && !WordProcessor.isAdjacent(word1, word2))
+            shortcutEdges--;
+        if (components != null)
+            components.edgeRemoved(graph, vertex1, vertex2);
+        pathTrees.clear();
+        PathTable table = tableToRepair();
+        if (table != null)
+            updater.edgeRemoved(graph, table, vertex1, vertex2);
+        return true;
+    }
 
     
     /**
@@ -115,13 +632,51 @@ public class GraphProcessor {
      *  shortest path between cat and wheat is the following list of words:
      *     [cat, hat, heat, wheat]
      * 
+     * The path is an unmodifiable {@link WordPath}, which only looks its words up when they are read.
+     * 
      * @param word1 first word
      * @param word2 second word
-     * @return List<String> list of the words
+     * @return List<String> list of the words, null if there is no path
      */
     public List<String> getShortestPath(String word1, String word2) {
-        return shortestPath.get(word1 + "|" + word2);
+        long start = startTimer();
+        List<String> path = findPath(word1, word2);
+        recordQuery(start, path != null);
+        return path;
+    }
     
+    /**
+     * Answers getShortestPath in the query mode
+     */
+    private List<String> findPath(String word1, String word2) {
+        lastExploredCount = 0;
+        int source = graph.indexOf(word1);
+        int target = graph.indexOf(word2);
+        if (!components().connected(source, target))
+            return null;
+        
+        if (queryMode == QueryMode.PRECOMPUTED) {
+            if (shortestPath == null)
+                return null;
+            //the precomputation leaves no row for a word without neighbors
+            if (source == target)
+                return buildPath(WordPath.of(target, 0, vertex -> -1, pathWords()));
+            if (shortestPath.distance(source, target) < 0)
+                return null;
+            return buildPath(WordPath.of(target, shortestPath.distance(source, target),
+                    vertex -> shortestPath.predecessor(source, vertex), pathWords()));
+        }
+        
+        if (queryMode == QueryMode.BIDIRECTIONAL || queryMode == QueryMode.ASTAR) {
+            if (searchPair(source, target) < 0)
+                return null;
+            return buildPath(effectiveQueryMode() == QueryMode.ASTAR ? heuristicSearch.path() : pairSearch.path());
+        }
+        
+        PathTreeCache.PathTree tree = pathTree(source);
+        if (tree == null || tree.distance(target) < 0)
+            return null;
+        return buildPath(WordPath.of(target, tree.distance(target), tree::predecessor, pathWords()));
     }
     
     /**
@@ -139,86 +694,345 @@ public class GraphProcessor {
      * 
      * @param word1 first word
      * @param word2 second word
-     * @return Integer distance
+     * @return Integer distance, -1 if there is no path
      */
     public Integer getShortestDistance(String word1, String word2) {
-        return shortestPath.get(word1 + "|" + word2).size() - 1;
+        long start = startTimer();
+        int distance = findDistance(word1, word2);
+        recordQuery(start, distance >= 0);
+        return distance;
     }
     
     /**
-     * Computes shortest paths and distances between all possible pairs of vertices.
-     * This method is called after every set of updates in the graph to recompute the path information.
-     * Any shortest path algorithm can be used (Djikstra's or Floyd-Warshall recommended).
+     * Answers getShortestDistance in the query mode
      */
-    public void shortestPathPrecomputation() {
-        Iterator<String> vertices = graph.getAllVertices().iterator();
-        while(vertices.hasNext()) {
-            String root = vertices.next();
-            ArrayList<vertexNode> pathList = generatePathList(root);
-            buildMap(pathList, root);
-        }
+    private int findDistance(String word1, String word2) {
+        lastExploredCount = 0;
+        int source = graph.indexOf(word1);
+        int target = graph.indexOf(word2);
+        if (!components().connected(source, target))
+            return -1;
+        
+        if (queryMode == QueryMode.PRECOMPUTED)
+            return shortestPath == null ? -1 : source == target ? 0 : shortestPath.distance(source, target);
+        
+        if (queryMode == QueryMode.BIDIRECTIONAL || queryMode == QueryMode.ASTAR)
+            return searchPair(source, target);
+        
+        PathTreeCache.PathTree tree = pathTree(source);
+        return tree == null ? -1 : tree.distance(target);
     }
     
     /**
-     * Using Djikstra's Algorithm to calculate the shortest path to all reachable vertices
+     * Gets the shortest paths between many pairs of words at once, the i-th path is between
+     * words1.get(i) and words2.get(i), like getShortestPath would return it.
+     * 
+     * Unless the paths are precomputed, the pairs are grouped by the word they share most often,
+     * either word of a pair since a path read backwards is a path too, and a single
+     * {@link BreadthFirstSearch} from the shared word answers its whole group, stopping
+     * as soon as every other word of the group is reached.
+     * Pairs between different components are answered by the {@link ComponentIndex} without searching.
      * 
-     * @param root the starting word of path
-     * @return the whole tree containing all the vertex reachable from root
+     * @param words1 first word of each pair
+     * @param words2 second word of each pair
+     * @return List<List<String>> path of each pair, null where there is no path
+     * @throws IllegalArgumentException if words1 and words2 differ in size
      */
-    private ArrayList<vertexNode> generatePathList(String root){
-        ArrayList<vertexNode> table = new ArrayList<vertexNode>();
-        ArrayList<vertexNode> removedNode = new ArrayList<vertexNode>();
+    public List<List<String>> getShortestPaths(List<String> words1, List<String> words2) {
+        if (words1.size() != words2.size())
+            throw new IllegalArgumentException("got " + words1.size() + " first words and " + words2.size() + " second words");
+        List<List<String>> paths = new ArrayList<List<String>>(Collections.nCopies(words1.size(), (List<String>) null));
+        if (queryMode == QueryMode.PRECOMPUTED) {
+            for (int i = 0; i < paths.size(); i++)
+                paths.set(i, getShortestPath(words1.get(i), words2.get(i)));
+            return paths;
+        }
+        
+        long start = startTimer();
+        int[] sources = new int[paths.size()];
+        int[] targets = new int[paths.size()];
+        for (int i = 0; i < paths.size(); i++) {
+            sources[i] = graph.indexOf(words1.get(i));
+            targets[i] = graph.indexOf(words2.get(i));
+        }
+        int[][] found = new int[paths.size()][];
+        long expanded = searchPairs(graph, components(), batchSearch, sources, targets, found);
+        for (int i = 0; i < found.length; i++)
+            if (found[i] != null)
+                paths.set(i, buildPath(found[i]));
         
-        Iterator<String> vertices = graph.getAllVertices().iterator();
-        while(vertices.hasNext())
-            table.add(new vertexNode(vertices.next()));
+        if (metrics != GraphMetrics.NONE) {
+            //a pair has no latency of its own, the time of the batch is spread over its pairs
+            long nanos = (System.nanoTime() - start) / Math.max(1, paths.size());
+            for (List<String> path : paths)
+                metrics.query(queryMode, nanos, path != null);
+            metrics.count(GraphMetrics.Counter.NODES_EXPANDED, expanded);
+        }
+        return paths;
+    }
+    
+    /**
+     * Finds the shortest paths between pairs of vertices with one search per shared vertex,
+     * see {@link #getShortestPaths(List, List)}
+     * 
+     * @param graph the graph to search
+     * @param components the components of graph
+     * @param search search to run from each shared vertex
+     * @param sources index of the first vertex of each pair, -1 if it is not in the graph
+     * @param targets index of the second vertex of each pair, -1 if it is not in the graph
+     * @param paths receives the indices on the path of each pair from its first to its second vertex,
+     *              left null where there is no path
+     * @return number of vertices reached by the searches
+     */
+    static long searchPairs(IndexedGraph<?> graph, ComponentIndex components, BreadthFirstSearch search,
+            int[] sources, int[] targets, int[][] paths) {
+        Map<Integer, Integer> uses = new HashMap<Integer, Integer>();
+        for (int i = 0; i < sources.length; i++) {
+            if (components.connected(sources[i], targets[i])) {
+                uses.merge(sources[i], 1, Integer::sum);
+                uses.merge(targets[i], 1, Integer::sum);
+            }
+        }
         
-        table.get(table.indexOf(new vertexNode(root))).weight = 0;
+        //the shared vertex of each pair in the high half and the pair in the low half, so sorting groups the pairs
+        long[] groups = new long[sources.length];
+        int grouped = 0;
+        for (int i = 0; i < sources.length; i++) {
+            if (!components.connected(sources[i], targets[i]))
+                continue;
+            int root = uses.get(targets[i]) > uses.get(sources[i]) ? targets[i] : sources[i];
+            groups[grouped++] = (long) root << 32 | i;
+        }
+        Arrays.sort(groups, 0, grouped);
         
-        while(!table.isEmpty()) {
-            vertexNode current = table.remove(table.indexOf(Collections.min(table, new Comparator<vertexNode>() {
-                public int compare(vertexNode n1, vertexNode n2) {
-                    return n1.weight - n2.weight;
-                }
-            })));
-            if (current.weight == Integer.MAX_VALUE)
-                break;
-            removedNode.add(current);
-            Iterator<String> successors = graph.getNeighbors(current.vertex).iterator();
-            while(successors.hasNext()) {
-                String temp = successors.next();
-                if (removedNode.contains(new vertexNode(temp)))
-                    continue;
-                int position = table.indexOf(new vertexNode(temp));
-                if (table.get(position).weight > (current.weight + 1)) {
-                    table.get(position).predecessor = current.vertex;
-                    table.get(position).weight = current.weight + 1;
-                }
+        int[] others = new int[16];
+        long expanded = 0;
+        for (int from = 0, to; from < grouped; from = to) {
+            int root = (int) (groups[from] >>> 32);
+            for (to = from; to < grouped && (int) (groups[to] >>> 32) == root; to++) {
+                int pair = (int) groups[to];
+                if (to - from == others.length)
+                    others = Arrays.copyOf(others, others.length * 2);
+                others[to - from] = sources[pair] == root ? targets[pair] : sources[pair];
+            }
+            search.search(graph, root, others, to - from);
+            expanded += search.visitedCount();
+            
+            for (int i = from; i < to; i++) {
+                int pair = (int) groups[i];
+                int other = others[i - from];
+                int[] path = new int[search.distance(other) + 1];
+                //the search runs from root, so the path is reversed where root is the second vertex of the pair
+                boolean forward = sources[pair] == root;
+                for (int j = path.length - 1, vertex = other; j >= 0; j--, vertex = search.predecessor(vertex))
+                    path[forward ? j : path.length - 1 - j] = vertex;
+                paths[pair] = path;
             }
         }
-        return removedNode;
+        return expanded;
     }
     
     /**
-     * build the path list from starting word to target word from the given tree
+     * Runs the point to point search of the query mode
      * 
-     * @param pathList the whole tree containing all the vertex reachable from root
-     * @param root the starting word of path
+     * @param source index of the first word
+     * @param target index of the second word
+     * @return distance between the words, -1 if there is no path or a word is not in the graph
      */
-    private void buildMap(ArrayList<vertexNode> pathList, String root) {
-        Iterator<String> vertices = graph.getAllVertices().iterator();
-        while(vertices.hasNext()) {
-            ArrayList<String> wordList = new ArrayList<String>();
-            String target = vertices.next();
-            if (pathList.contains((new vertexNode(target)))) {
-                String predecessor = target;
-                while(predecessor != null) {
-                    wordList.add(predecessor);
-                    predecessor = pathList.get(pathList.indexOf(new vertexNode(predecessor))).predecessor;
-                }
-                Collections.reverse(wordList);
-                shortestPath.put(root + "|" + target, wordList);
+    private int searchPair(int source, int target) {
+        if (source < 0 || target < 0)
+            return -1;
+        
+        int distance;
+        if (effectiveQueryMode() == QueryMode.ASTAR) {
+            distance = heuristicSearch.search(graph, source, target);
+            lastExploredCount = heuristicSearch.exploredCount();
+        } else {
+            distance = pairSearch.search(graph, source, target);
+            lastExploredCount = pairSearch.exploredCount();
+        }
+        return distance;
+    }
+    
+    /**
+     * @return the query mode queries are answered in, BIDIRECTIONAL instead of ASTAR while
+     * there are edges its heuristic does not hold for
+     */
+    private QueryMode effectiveQueryMode() {
+        return queryMode == QueryMode.ASTAR && shortcutEdges > 0 ? QueryMode.BIDIRECTIONAL : queryMode;
+    }
+    
+    /**
+     * @param source index of the source word
+     * @return the cached search tree from source, null if source is not in the graph
+     */
+    private PathTreeCache.PathTree pathTree(int source) {
+        if (source < 0)
+            return null;
+        if (metrics == GraphMetrics.NONE)
+            return pathTrees.get(graph, source);
+        
+        long hits = pathTrees.hits();
+        long expanded = pathTrees.expanded();
+        PathTreeCache.PathTree tree = pathTrees.get(graph, source);
+        metrics.count(pathTrees.hits() > hits ? GraphMetrics.Counter.CACHE_HITS : GraphMetrics.Counter.CACHE_MISSES, 1);
+        //a miss searched the whole component of source, recorded with the query
+        lastExploredCount = (int) (pathTrees.expanded() - expanded);
+        return tree;
+    }
+    
+    /**
+     * Records the latency of a query and the words it looked at
+     * 
+     * @param start time the query started, from startTimer
+     * @param found true if the query found a path
+     */
+    private void recordQuery(long start, boolean found) {
+        if (metrics == GraphMetrics.NONE)
+            return;
+        metrics.query(queryMode, System.nanoTime() - start, found);
+        if (lastExploredCount > 0)
+            metrics.count(GraphMetrics.Counter.NODES_EXPANDED, lastExploredCount);
+    }
+    
+    /**
+     * @param path indices of the words on a path
+     * @return list of the words on the path, see {@link WordPath}
+     */
+    private WordPath buildPath(int[] path) {
+        return buildPath(new WordPath(path, pathWords()));
+    }
+    
+    /**
+     * @param path a path looking its words up with {@link #pathWords()}, e.g. rebuilt by {@link WordPath#of}
+     * @return the path, or a copy of its words if the graph may give its indices to other words later
+     */
+    private WordPath buildPath(WordPath path) {
+        if (graph instanceof WordGraph || graph instanceof CsrGraph)
+            return path;
+        
+        //other graphs give the index of a removed word to the next word added, and hold their words as strings anyway
+        String[] words = path.toArray(new String[path.size()]);
+        int[] positions = new int[words.length];
+        for (int i = 0; i < positions.length; i++)
+            positions[i] = i;
+        return new WordPath(positions, position -> words[position]);
+    }
+    
+    /**
+     * @return lookup of the word of an index for the paths of the graph
+     */
+    private IntFunction<String> pathWords() {
+        if (graph instanceof WordGraph)
+            return ((WordGraph) graph).words()::word;
+        return graph::vertexAt;
+    }
+    
+    /**
+     * Computes shortest paths and distances between all possible pairs of vertices.
+     * This method is called after every set of updates in the graph to recompute the path information,
+     * unless the updates go through addVertex, removeVertex, addEdge and removeEdge of this class,
+     * which repair the computed paths in place, see {@link #setIncrementalUpdates(boolean)}.
+     * Any shortest path algorithm can be used (Djikstra's or Floyd-Warshall recommended).
+     * Every edge has weight 1, so a {@link BreadthFirstSearch} from each vertex finds the same paths as Djikstra's.
+     * The paths are kept in a {@link PathTable} of distances and predecessors and only rebuilt when asked for.
+     * Sources are spread across the pool set through {@link #setPool(ForkJoinPool)}, if any.
+     * A search never leaves the component of its source, and words without neighbors are skipped
+     * since queries between different components are answered by the {@link ComponentIndex}.
+     */
+    public void shortestPathPrecomputation() {
+        long start = startTimer();
+        PathTable table = new PathTable(graph.indexBound());
+        ComponentIndex components = components();
+        int total = 0;
+        long expanded = 0;
+        for (int root = 0; root < graph.indexBound(); root++) {
+            if (graph.vertexAt(root) != null && components.componentSize(root) > 1) {
+                total++;
+                //a search from root takes every word of its component out of the queue
+                expanded += components.componentSize(root);
             }
         }
+        
+        if (pool != null) {
+            pool.invoke(new PrecomputationTask(graph, table, 0, graph.indexBound(), new AtomicInteger(), total, progressListener, components));
+        } else {
+            BreadthFirstSearch search = new BreadthFirstSearch();
+            int done = 0;
+            for (int root = 0; root < graph.indexBound(); root++) {
+                if (graph.vertexAt(root) == null || components.componentSize(root) == 1)
+                    continue;
+                search.search(graph, root);
+                table.fill(search);
+                if (progressListener != null)
+                    progressListener.progress(++done, total);
+            }
+        }
+        shortestPath = table;
+        lap(GraphMetrics.Phase.PRECOMPUTE, start);
+        metrics.count(GraphMetrics.Counter.NODES_EXPANDED, expanded);
+    }
+    
+    /**
+     * Writes the paths computed by shortestPathPrecomputation to a {@link MappedPathTable} file,
+     * tagged with a fingerprint of the graph so it is only loaded again for the same graph
+     * 
+     * @param filepath file path to write
+     * @throws IOException exception resulting from writing the file
+     * @throws IllegalStateException if no paths were computed
+     */
+    public void saveShortestPaths(String filepath) throws IOException {
+        if (shortestPath == null)
+            throw new IllegalStateException("shortest paths are not computed");
+        MappedPathTable.write(filepath, shortestPath, MappedPathTable.fingerprint(graph));
+    }
+    
+    /**
+     * Answers {@link QueryMode#PRECOMPUTED} queries from a file written by saveShortestPaths, e.g. by an earlier run
+     * or by another process. The paths are read from the mapped file, leaving the heap free, and are not
+     * repaired by updates to the graph but dropped, see {@link #setIncrementalUpdates(boolean)}.
+     * 
+     * @param filepath file path of the paths
+     * @return true if the paths were loaded, false if they were computed for a different graph
+     * @throws IOException exception resulting from accessing the file
+     */
+    public boolean loadShortestPaths(String filepath) throws IOException {
+        MappedPathTable store = MappedPathTable.open(filepath, MappedPathTable.fingerprint(graph));
+        if (store == null)
+            return false;
+        shortestPath = store;
+        return true;
+    }
+    
+    /**
+     * Publishes an immutable copy of the graph, its components and its precomputed paths, which any number of
+     * threads can query through {@link #getPublished()} while this processor keeps being updated.
+     * The processor itself is not thread safe: a single thread updates it and calls publish after a set of updates,
+     * and the versions published before are left as they were.
+     * Copies the graph unless it is a {@link CsrGraph}, only the edges of a {@link WordGraph}, whose words the version
+     * looks up in the shared append-only {@link WordTable}. Precomputed paths in a {@link PathTable} are shared
+     * with the version and a row is only copied when a later update repairs it.
+     * 
+     * @return the published version
+     */
+    public GraphVersion publish() {
+        ComponentIndex components = components();
+        int[] labels = new int[graph.indexBound()];
+        for (int i = 0; i < labels.length; i++)
+            labels[i] = components.label(i);
+        PathStore paths = shortestPath instanceof PathTable ? ((PathTable) shortestPath).snapshot() : shortestPath;
+        CsrGraph<String> frozen = graph instanceof CsrGraph ? (CsrGraph<String>) graph
+                : graph instanceof WordGraph ? ((WordGraph) graph).freeze() : CsrGraph.copyOf(graph);
+        published = new GraphVersion(published, frozen, new ComponentIndex(labels), paths, effectiveQueryMode());
+        return published;
+    }
+    
+    /**
+     * Gets the last published version without locking, from any thread
+     * 
+     * @return the version made by the last call of {@link #publish()}, null before the first one
+     */
+    public GraphVersion getPublished() {
+        return published;
     }
 }
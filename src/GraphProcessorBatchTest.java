@@ -0,0 +1,117 @@
+/////////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       GraphProcessorBatchTest.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test GraphProcessor's getShortestPaths against getShortestPath
+ */
+public class GraphProcessorBatchTest {
+    private GraphProcessor processor;
+    private List<String> words1;
+    private List<String> words2;
+
+    @Before
+    public void setUp() throws Exception {
+        // short words over a small alphabet so that most of them are connected, and a few isolated words
+        Random random = new Random(400);
+        List<String> words = TestSupport.randomWords(random, 400, 4, 4, "ABCDE");
+        words.addAll(Arrays.asList("XYZZY", "QQQQQQ"));
+        File dictionary = File.createTempFile("dictionary", ".txt");
+        dictionary.deleteOnExit();
+        Files.write(dictionary.toPath(), words);
+        this.processor = new GraphProcessor();
+        this.processor.populateGraph(dictionary.getPath());
+
+        // a few words shared by many pairs on either side, random pairs, missing and isolated words
+        this.words1 = new ArrayList<>();
+        this.words2 = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String shared = words.get(random.nextInt(3));
+            String other = words.get(random.nextInt(words.size()));
+            words1.add(i % 3 == 0 ? shared : i % 3 == 1 ? other : words.get(random.nextInt(words.size())));
+            words2.add(i % 3 == 1 ? shared : other);
+        }
+        words1.addAll(Arrays.asList("AAAA", "XYZZY", "NOWORD", "ABCD"));
+        words2.addAll(Arrays.asList("AAAA", "ABCD", "ABCD", "XYZZY"));
+    }
+
+    /**
+     * Test that the batch finds a path for the same pairs as getShortestPath, just as short, in every query mode
+     */
+    @Test
+    public final void batchShouldAnswerLikeSingleQueries() {
+        processor.shortestPathPrecomputation();
+        for (GraphProcessor.QueryMode mode : GraphProcessor.QueryMode.values()) {
+            processor.setQueryMode(mode);
+            List<List<String>> paths = processor.getShortestPaths(words1, words2);
+            assertEquals(mode + " number of paths", words1.size(), paths.size());
+            for (int i = 0; i < paths.size(); i++) {
+                String word1 = words1.get(i);
+                String word2 = words2.get(i);
+                List<String> expected = processor.getShortestPath(word1, word2);
+                List<String> path = paths.get(i);
+                assertEquals(mode + " found " + word1 + " " + word2, expected == null, path == null);
+                if (path == null)
+                    continue;
+                assertEquals(mode + " length of " + path, expected.size(), path.size());
+                assertEquals(mode + " first word of " + path, word1, path.get(0));
+                assertEquals(mode + " last word of " + path, word2, path.get(path.size() - 1));
+                for (int j = 1; j < path.size(); j++)
+                    assertTrue(mode + " adjacent in " + path, WordProcessor.isAdjacent(path.get(j - 1), path.get(j)));
+            }
+        }
+    }
+
+    /**
+     * Test that an empty batch gives no paths and lists of different sizes are rejected
+     */
+    @Test
+    public final void batchShouldCheckItsPairs() {
+        assertEquals("empty batch", 0, processor.getShortestPaths(new ArrayList<>(), new ArrayList<>()).size());
+        try {
+            processor.getShortestPaths(Arrays.asList("AAAA"), new ArrayList<>());
+            assertTrue("lists of different sizes were accepted", false);
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Test that a search with several targets stops once it reached all of them
+     */
+    @Test
+    public final void searchShouldStopAtLastTarget() {
+        WordGraph graph = new WordGraph();
+        for (String word : Arrays.asList("A", "B", "C", "D", "E"))
+            graph.addVertex(word);
+        // a chain A - B - C - D - E
+        graph.addEdge("A", "B");
+        graph.addEdge("B", "C");
+        graph.addEdge("C", "D");
+        graph.addEdge("D", "E");
+        BreadthFirstSearch search = new BreadthFirstSearch();
+        search.search(graph, graph.indexOf("A"), new int[] {graph.indexOf("C"), graph.indexOf("B")}, 2);
+
+        assertEquals("distance to C", 2, search.distance(graph.indexOf("C")));
+        assertEquals("distance to B", 1, search.distance(graph.indexOf("B")));
+        assertEquals("words reached", 3, search.visitedCount());
+    }
+}
@@ -11,7 +11,9 @@ import static org.junit.Assert.assertEquals;
 
 import static org.junit.Assert.*;
 import java.io.File;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.After;
 import org.junit.AfterClass;
@@ -73,4 +75,105 @@ public class GraphProcessorTest {
         List<String> path4 = graph.getShortestPath("DEFINE", "SHINNY");
         assertEquals("The length of shortest path between DEFINE and SHINNY", 26, path4.size() - 1);
     }
+    
+    /**
+     * Test that lazy queries find the same distances without the precomputed tables and reuse cached search trees
+     */
+    @Test
+    public final void TestLazyShortestPath() {
+        graph.setQueryMode(GraphProcessor.QueryMode.LAZY);
+        
+        int path1 = graph.getShortestDistance("COMEDO", "CHARGE");
+        assertEquals("The length of shortest path between COMEDO and CHARGE", 49, path1);
+        
+        List<String> path2 = graph.getShortestPath("COMEDO", "CHARGE");
+        assertEquals("The length of shortest path between COMEDO and CHARGE", 49, path2.size() - 1);
+        
+        int path3 = graph.getShortestDistance("DEFINE", "SHINNY");
+        assertEquals("The length of shortest path between DEFINE and SHINNY", 26, path3);
+        
+        assertEquals("search trees reused from the cache", 1, graph.getPathTreeCache().hits());
+        assertEquals("search trees computed", 2, graph.getPathTreeCache().misses());
+    }
+    
+    /**
+     * Test that bidirectional queries find the same distances and paths of the same length as the precomputed tables
+     */
+    @Test
+    public final void TestBidirectionalShortestPath() {
+        String[][] pairs = {{"COMEDO", "CHARGE"}, {"CHARGE", "GIMLETS"}, {"BELLIES", "JOLLIES"}, {"DEFINE", "SHINNY"}};
+        for (String[] pair : pairs) {
+            int precomputed = graph.getShortestDistance(pair[0], pair[1]);
+            graph.setQueryMode(GraphProcessor.QueryMode.BIDIRECTIONAL);
+            assertEquals("The length of shortest path between " + pair[0] + " and " + pair[1],
+                    precomputed, (int) graph.getShortestDistance(pair[0], pair[1]));
+            List<String> path = graph.getShortestPath(pair[0], pair[1]);
+            assertEquals("The length of shortest path between " + pair[0] + " and " + pair[1], precomputed, path.size() - 1);
+            assertEquals("First word of shortest path", pair[0], path.get(0));
+            assertEquals("Last word of shortest path", pair[1], path.get(path.size() - 1));
+            graph.setQueryMode(GraphProcessor.QueryMode.PRECOMPUTED);
+        }
+    }
+    
+    /**
+     * Test that A* queries find the same distance on a long ladder and report how many words they looked at
+     */
+    @Test
+    public final void TestAStarShortestPath() {
+        graph.setQueryMode(GraphProcessor.QueryMode.ASTAR);
+        
+        List<String> path = graph.getShortestPath("COMEDO", "CHARGE");
+        assertEquals("The length of shortest path between COMEDO and CHARGE", 49, path.size() - 1);
+        assertTrue("words looked at by A*", graph.getLastExploredCount() >= 50);
+        
+        int distance = graph.getShortestDistance("CHARGE", "GIMLETS");
+        assertEquals("The length of shortest path between CHARGE and GIMLETS", 78, distance);
+    }
+    
+    /**
+     * Test that A* queries stay exact while an added edge joins words more than one edit apart
+     */
+    @Test
+    public final void TestAStarWithShortcutEdge() throws Exception {
+        File dictionary = File.createTempFile("dictionary", ".txt");
+        dictionary.deleteOnExit();
+        Files.write(dictionary.toPath(), Arrays.asList("cat", "hat", "heat", "wheat", "cab"));
+        GraphProcessor processor = new GraphProcessor();
+        processor.populateGraph(dictionary.getPath());
+        processor.setQueryMode(GraphProcessor.QueryMode.ASTAR);
+        assertEquals("Distance along the ladder", 3, (int) processor.getShortestDistance("CAT", "WHEAT"));
+        
+        // CAB is four edits from WHEAT, so the heuristic would rule out the path through the new edge
+        assertTrue("edge added", processor.addEdge("CAB", "WHEAT"));
+        assertEquals("Distance through the new edge", 2, (int) processor.getShortestDistance("CAT", "WHEAT"));
+        assertEquals("Path through the new edge", Arrays.asList("CAT", "CAB", "WHEAT"), processor.getShortestPath("CAT", "WHEAT"));
+        assertEquals("Distance in the published version", 2, (int) processor.publish().getShortestDistance("CAT", "WHEAT"));
+        
+        assertTrue("edge removed", processor.removeEdge("CAB", "WHEAT"));
+        assertEquals("Distance along the ladder again", 3, (int) processor.getShortestDistance("CAT", "WHEAT"));
+        assertEquals("Mode of the published version", GraphProcessor.QueryMode.ASTAR, processor.publish().queryMode());
+    }
+    
+    /**
+     * Test that adding and removing words keeps the precomputed distances equal to a full recomputation
+     */
+    @Test
+    public final void TestAddRemoveWord() {
+        assertTrue("new word added", graph.addWord(" chargex "));
+        assertFalse("word added twice", graph.addWord("CHARGEX"));
+        assertEquals("Distance between CHARGE and the new word", 1, (int) graph.getShortestDistance("CHARGE", "CHARGEX"));
+        
+        String[][] pairs = {{"COMEDO", "CHARGEX"}, {"CHARGEX", "GIMLETS"}, {"COMEDO", "CHARGE"}};
+        int[] repaired = new int[pairs.length];
+        for (int i = 0; i < pairs.length; i++)
+            repaired[i] = graph.getShortestDistance(pairs[i][0], pairs[i][1]);
+        graph.shortestPathPrecomputation();
+        for (int i = 0; i < pairs.length; i++)
+            assertEquals("The length of shortest path between " + pairs[i][0] + " and " + pairs[i][1],
+                    repaired[i], (int) graph.getShortestDistance(pairs[i][0], pairs[i][1]));
+        
+        assertTrue("word removed", graph.removeWord("chargex"));
+        assertEquals("Distance to a removed word", -1, (int) graph.getShortestDistance("COMEDO", "CHARGEX"));
+        assertEquals("The length of shortest path between COMEDO and CHARGE", 49, (int) graph.getShortestDistance("COMEDO", "CHARGE"));
+    }
 }
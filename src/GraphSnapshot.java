@@ -0,0 +1,241 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       GraphSnapshot.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Binary file holding a built word graph, so a process can start from it instead of
+ * reading the dictionary and finding every edge again.
+ *
+ * The file is a fixed header followed by flat arrays, all big endian:
+ *  int magic, int version, long CRC32 of the dictionary file the graph was built from,
+ *  int flags (1 if component labels are present), int number of words n,
+ *  int number of neighbor entries m, int number of word bytes b
+ *  int[n + 1] start of each word in the word bytes
+ *  int[n + 1] start of the neighbors of each word, int[m] neighbor indices (the arrays of a {@link CsrGraph})
+ *  int[n] component label of each word, less than n, if present
+ *  byte[b] UTF-8 bytes of all the words back to back
+ * Loading maps the file and copies each array out in bulk into a {@link WordGraph}, which keeps the word
+ * bytes and their offsets as its {@link WordTable}: no String is made for a word, the only per word work
+ * is hashing its bytes and copying its neighbors into a list the graph can grow.
+ */
+public class GraphSnapshot {
+
+    private static final int MAGIC = 0x57475348;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int HAS_LABELS = 1;
+
+    /**
+     * Number of bytes of a dictionary file mapped at once by checksum
+     */
+    private static final int WINDOW = 1 << 26;
+
+    private final WordGraph graph;
+    private final int[] labels;
+
+    private GraphSnapshot(WordGraph graph, int[] labels) {
+        this.graph = graph;
+        this.labels = labels;
+    }
+
+    /**
+     * @return the graph read from the snapshot, which can be changed like any WordGraph
+     */
+    public WordGraph graph() {
+        return graph;
+    }
+
+    /**
+     * @return the component label of each vertex index, null if the snapshot has none
+     */
+    public int[] labels() {
+        return labels;
+    }
+
+    /**
+     * @param dictionaryPath file path to a dictionary file
+     * @return CRC32 of the bytes of the file
+     * @throws IOException exception resulting from accessing the file
+     */
+    public static long checksum(String dictionaryPath) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(Paths.get(dictionaryPath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += WINDOW)
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW, size - position)));
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Writes a graph to a snapshot file, replacing the file only once the new one is complete.
+     * Unused vertex indices are left out, so the words are renumbered in index order.
+     *
+     * @param snapshotPath file path of the snapshot to write
+     * @param graph the graph to write
+     * @param components components of the graph to store with it, null for none
+     * @param checksum CRC32 of the dictionary the graph was built from, see {@link #checksum(String)}
+     * @throws IOException exception resulting from writing the file
+     */
+    public static void write(String snapshotPath, IndexedGraph<String> graph, ComponentIndex components, long checksum)
+            throws IOException {
+        //new index of each used vertex index
+        int bound = graph.indexBound();
+        int[] compact = new int[bound];
+        int count = 0;
+        for (int i = 0; i < bound; i++)
+            compact[i] = graph.vertexAt(i) == null ? -1 : count++;
+
+        byte[][] words = new byte[count][];
+        int[] wordOffsets = new int[count + 1];
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i < bound; i++) {
+            if (compact[i] < 0)
+                continue;
+            int vertex = compact[i];
+            words[vertex] = graph.vertexAt(i).getBytes(StandardCharsets.UTF_8);
+            wordOffsets[vertex + 1] = wordOffsets[vertex] + words[vertex].length;
+            offsets[vertex + 1] = offsets[vertex] + graph.degree(i);
+        }
+
+        int[] targets = new int[offsets[count]];
+        int[] neighbors = new int[16];
+        for (int i = 0; i < bound; i++) {
+            if (compact[i] < 0)
+                continue;
+            if (graph.degree(i) > neighbors.length)
+                neighbors = new int[Math.max(graph.degree(i), neighbors.length * 2)];
+            int degree = graph.neighborIndices(i, neighbors);
+            for (int j = 0; j < degree; j++)
+                targets[offsets[compact[i]] + j] = compact[neighbors[j]];
+        }
+
+        long size = HEADER_BYTES + 4L * (2 * (count + 1) + targets.length) + wordOffsets[count];
+        if (components != null)
+            size += 4L * count;
+
+        Path path = Paths.get(snapshotPath);
+        Path temporary = Paths.get(snapshotPath + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(checksum).putInt(components == null ? 0 : HAS_LABELS)
+                    .putInt(count).putInt(targets.length).putInt(wordOffsets[count]);
+            buffer.asIntBuffer().put(wordOffsets).put(offsets).put(targets);
+            buffer.position(buffer.position() + 4 * (wordOffsets.length + offsets.length + targets.length));
+            if (components != null) {
+                //renumbers the labels in order of first use, so they are less than the number of words
+                //like ComponentIndex(int[]) expects of labels read back
+                HashMap<Integer, Integer> labels = new HashMap<Integer, Integer>();
+                for (int i = 0; i < bound; i++) {
+                    if (compact[i] < 0)
+                        continue;
+                    Integer label = labels.get(components.label(i));
+                    if (label == null) {
+                        label = labels.size();
+                        labels.put(components.label(i), label);
+                    }
+                    buffer.putInt(label);
+                }
+            }
+            for (byte[] word : words)
+                buffer.put(word);
+            buffer.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Reads a snapshot file
+     *
+     * @param snapshotPath file path of the snapshot
+     * @param checksum CRC32 of the dictionary the graph should have been built from, see {@link #checksum(String)}
+     * @return the snapshot, null if it was built from a different dictionary
+     * @throws IOException exception resulting from accessing the file, or if it is not a valid snapshot of this version
+     */
+    public static GraphSnapshot load(String snapshotPath, long checksum) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(snapshotPath), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES)
+                throw new IOException(snapshotPath + " is not a graph snapshot");
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC)
+                throw new IOException(snapshotPath + " is not a graph snapshot");
+            if (buffer.getInt() != VERSION)
+                throw new IOException(snapshotPath + " is a graph snapshot of an unsupported version");
+            if (buffer.getLong() != checksum)
+                return null;
+
+            int flags = buffer.getInt();
+            int count = buffer.getInt();
+            int entries = buffer.getInt();
+            int byteCount = buffer.getInt();
+            //checks the counts against the file before allocating anything with them
+            if (count < 0 || entries < 0 || byteCount < 0 || HEADER_BYTES + 4L * (2L * (count + 1L) + entries)
+                    + ((flags & HAS_LABELS) != 0 ? 4L * count : 0) + byteCount != channel.size())
+                throw new IOException(snapshotPath + " has counts that do not match its length");
+            int[] wordOffsets = new int[count + 1];
+            int[] offsets = new int[count + 1];
+            int[] targets = new int[entries];
+            byte[] bytes = new byte[byteCount];
+            int[] labels = (flags & HAS_LABELS) != 0 ? new int[count] : null;
+
+            buffer.asIntBuffer().get(wordOffsets).get(offsets).get(targets);
+            buffer.position(buffer.position() + 4 * (wordOffsets.length + offsets.length + targets.length));
+            if (labels != null) {
+                buffer.asIntBuffer().get(labels);
+                buffer.position(buffer.position() + 4 * labels.length);
+            }
+            buffer.get(bytes);
+
+            if (!ascending(wordOffsets, byteCount) || !ascending(offsets, entries))
+                throw new IOException(snapshotPath + " has offsets out of order or out of bounds");
+            for (int target : targets)
+                if (target < 0 || target >= count)
+                    throw new IOException(snapshotPath + " has a neighbor index out of bounds");
+            if (labels != null)
+                for (int label : labels)
+                    if (label < 0 || label >= count)
+                        throw new IOException(snapshotPath + " has a component label out of bounds");
+
+            WordTable words;
+            try {
+                words = new WordTable(bytes, wordOffsets, count);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(snapshotPath + " has a word twice");
+            }
+            return new GraphSnapshot(new WordGraph(words, offsets, targets), labels);
+        } catch (BufferUnderflowException e) {
+            throw new IOException(snapshotPath + " is a truncated graph snapshot");
+        }
+    }
+
+    /**
+     * @return true if the offsets start at 0, never decrease and end at end
+     */
+    private static boolean ascending(int[] offsets, int end) {
+        if (offsets[0] != 0 || offsets[offsets.length - 1] != end)
+            return false;
+        for (int i = 1; i < offsets.length; i++)
+            if (offsets[i] < offsets[i - 1])
+                return false;
+        return true;
+    }
+}
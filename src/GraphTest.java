@@ -16,7 +16,7 @@ import org.junit.Test;
  */
 public class GraphTest {
 
-	private GraphADT<String> graph;
+	protected GraphADT<String> graph;
 	
 	private static List<String> vertices;
 	
@@ -49,7 +49,14 @@ public class GraphTest {
 
 	@Before
 	public void setUp() throws Exception {
-		this.graph = new Graph<>();
+		this.graph = createGraph();
+	}
+	
+	/**
+	 * @return the empty graph every test runs against, subclasses override it to test other implementations
+	 */
+	protected GraphADT<String> createGraph() {
+		return new Graph<>();
 	}
 
 	@After
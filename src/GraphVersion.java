@@ -0,0 +1,230 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       GraphVersion.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Immutable copy of the graph, components and shortest paths of a {@link GraphProcessor},
+ * made and published by {@link GraphProcessor#publish()}.
+ *
+ * Any number of threads can query a version at the same time without locking, while the processor
+ * keeps being updated: the processor never changes what a published version holds, the rows of
+ * its precomputed paths are copied before they are repaired. A query takes its search objects from
+ * {@link SearchPool}s shared by all the versions of a processor and gives them back when it is done.
+ * A version answers queries in the query mode the processor had when it was published, with the
+ * difference that {@link GraphProcessor.QueryMode#LAZY} searches from the first word without a cache.
+ */
+public class GraphVersion {
+
+    /**
+     * Most idle searches of each kind kept for the versions of a processor
+     */
+    private static final int POOL_CAPACITY = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final long version;
+    private final CsrGraph<String> graph;
+    private final ComponentIndex components;
+    private final PathStore paths;
+    private final GraphProcessor.QueryMode queryMode;
+    private final SearchPool<BreadthFirstSearch> treeSearches;
+    private final SearchPool<BidirectionalSearch> pairSearches;
+    private final SearchPool<AStarSearch> heuristicSearches;
+
+    /**
+     * @param previous the version published before by the same processor, whose searches are reused, null for the first
+     * @param graph the graph, which must not change anymore
+     * @param components the components of the graph, which must not change anymore
+     * @param paths precomputed paths between the vertex indices of graph, which must not change anymore, or null
+     * @param queryMode how queries are answered
+     */
+    GraphVersion(GraphVersion previous, CsrGraph<String> graph, ComponentIndex components, PathStore paths,
+            GraphProcessor.QueryMode queryMode) {
+        this.version = previous == null ? 1 : previous.version + 1;
+        this.treeSearches = previous == null ? new SearchPool<BreadthFirstSearch>(POOL_CAPACITY, BreadthFirstSearch::new)
+                : previous.treeSearches;
+        this.pairSearches = previous == null ? new SearchPool<BidirectionalSearch>(POOL_CAPACITY, BidirectionalSearch::new)
+                : previous.pairSearches;
+        this.heuristicSearches = previous == null ? new SearchPool<AStarSearch>(POOL_CAPACITY, AStarSearch::new)
+                : previous.heuristicSearches;
+        this.graph = graph;
+        this.components = components;
+        this.paths = paths;
+        this.queryMode = queryMode;
+    }
+
+    /**
+     * @return number of the version, 1 for the first version a processor published
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return the graph of the version, which is immutable
+     */
+    public CsrGraph<String> graph() {
+        return graph;
+    }
+
+    /**
+     * @return how the version answers queries
+     */
+    public GraphProcessor.QueryMode queryMode() {
+        return queryMode;
+    }
+
+    /**
+     * Gets the shortest path between word1 and word2, see {@link GraphProcessor#getShortestPath(String, String)}
+     *
+     * @param word1 first word
+     * @param word2 second word
+     * @return list of the words, null if there is no path
+     */
+    public List<String> getShortestPath(String word1, String word2) {
+        int source = graph.indexOf(word1);
+        int target = graph.indexOf(word2);
+        if (!components.connected(source, target))
+            return null;
+        if (source == target)
+            return buildPath(target, 0, vertex -> -1);
+
+        if (queryMode == GraphProcessor.QueryMode.PRECOMPUTED) {
+            if (paths == null || paths.distance(source, target) < 0)
+                return null;
+            return buildPath(target, paths.distance(source, target), vertex -> paths.predecessor(source, vertex));
+        }
+
+        if (queryMode == GraphProcessor.QueryMode.BIDIRECTIONAL) {
+            BidirectionalSearch search = pairSearches.take();
+            try {
+                return search.search(graph, source, target) < 0 ? null : buildPath(search.path());
+            } finally {
+                pairSearches.give(search);
+            }
+        }
+
+        if (queryMode == GraphProcessor.QueryMode.ASTAR) {
+            AStarSearch search = heuristicSearches.take();
+            try {
+                return search.search(graph, source, target) < 0 ? null : buildPath(search.path());
+            } finally {
+                heuristicSearches.give(search);
+            }
+        }
+
+        BreadthFirstSearch search = treeSearches.take();
+        try {
+            search.search(graph, source, target);
+            return search.distance(target) < 0 ? null : buildPath(target, search.distance(target), search::predecessor);
+        } finally {
+            treeSearches.give(search);
+        }
+    }
+
+    /**
+     * Gets the distance of the shortest path between word1 and word2,
+     * see {@link GraphProcessor#getShortestDistance(String, String)}
+     *
+     * @param word1 first word
+     * @param word2 second word
+     * @return Integer distance, -1 if there is no path
+     */
+    public Integer getShortestDistance(String word1, String word2) {
+        int source = graph.indexOf(word1);
+        int target = graph.indexOf(word2);
+        if (!components.connected(source, target))
+            return -1;
+        if (source == target)
+            return 0;
+
+        if (queryMode == GraphProcessor.QueryMode.PRECOMPUTED)
+            return paths == null ? -1 : paths.distance(source, target);
+        if (queryMode == GraphProcessor.QueryMode.BIDIRECTIONAL) {
+            BidirectionalSearch search = pairSearches.take();
+            try {
+                return search.search(graph, source, target);
+            } finally {
+                pairSearches.give(search);
+            }
+        }
+
+        if (queryMode == GraphProcessor.QueryMode.ASTAR) {
+            AStarSearch search = heuristicSearches.take();
+            try {
+                return search.search(graph, source, target);
+            } finally {
+                heuristicSearches.give(search);
+            }
+        }
+
+        BreadthFirstSearch search = treeSearches.take();
+        try {
+            search.search(graph, source, target);
+            return search.distance(target);
+        } finally {
+            treeSearches.give(search);
+        }
+    }
+
+    /**
+     * Gets the shortest paths between many pairs of words at once,
+     * see {@link GraphProcessor#getShortestPaths(List, List)}
+     *
+     * @param words1 first word of each pair
+     * @param words2 second word of each pair
+     * @return path of each pair, null where there is no path
+     * @throws IllegalArgumentException if words1 and words2 differ in size
+     */
+    public List<List<String>> getShortestPaths(List<String> words1, List<String> words2) {
+        if (words1.size() != words2.size())
+            throw new IllegalArgumentException("got " + words1.size() + " first words and " + words2.size() + " second words");
+        List<List<String>> paths = new ArrayList<List<String>>(Collections.nCopies(words1.size(), (List<String>) null));
+        if (queryMode == GraphProcessor.QueryMode.PRECOMPUTED) {
+            for (int i = 0; i < paths.size(); i++)
+                paths.set(i, getShortestPath(words1.get(i), words2.get(i)));
+            return paths;
+        }
+
+        int[] sources = new int[paths.size()];
+        int[] targets = new int[paths.size()];
+        for (int i = 0; i < paths.size(); i++) {
+            sources[i] = graph.indexOf(words1.get(i));
+            targets[i] = graph.indexOf(words2.get(i));
+        }
+        int[][] found = new int[paths.size()][];
+        BreadthFirstSearch search = treeSearches.take();
+        try {
+            GraphProcessor.searchPairs(graph, components, search, sources, targets, found);
+        } finally {
+            treeSearches.give(search);
+        }
+        for (int i = 0; i < found.length; i++)
+            if (found[i] != null)
+                paths.set(i, buildPath(found[i]));
+        return paths;
+    }
+
+    /**
+     * @param path indices of the words on a path
+     * @return list of the words on the path
+     */
+    private List<String> buildPath(int[] path) {
+        return new WordPath(path, graph::vertexAt);
+    }
+
+    /**
+     * Rebuilds a path by following predecessors back from its last word
+     */
+    private List<String> buildPath(int target, int distance, IntUnaryOperator predecessor) {
+        return WordPath.of(target, distance, predecessor, graph::vertexAt);
+    }
+}
@@ -0,0 +1,198 @@
+/////////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       GraphVersionTest.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class GraphVersion, published by GraphProcessor while it is updated
+ */
+public class GraphVersionTest {
+    private GraphProcessor processor;
+    private File dictionary;
+
+    @Before
+    public void setUp() throws Exception {
+        this.dictionary = File.createTempFile("dictionary", ".txt");
+        this.dictionary.deleteOnExit();
+        Files.write(dictionary.toPath(), Arrays.asList("cat", "hat", "heat", "wheat", "kit", "rat", "zzz"));
+        this.processor = new GraphProcessor();
+        this.processor.populateGraph(dictionary.getPath());
+    }
+
+    /**
+     * Test that a published version keeps answering like the graph it was published from
+     */
+    @Test
+    public final void oldVersionShouldNotChangeAfterUpdates() {
+        processor.shortestPathPrecomputation();
+        GraphVersion first = processor.publish();
+        processor.removeWord("heat");
+        processor.addWord("kat");
+        GraphVersion second = processor.publish();
+
+        assertEquals("first version", 1, first.version());
+        assertEquals("second version", 2, second.version());
+        assertEquals("published", second, processor.getPublished());
+        assertEquals("old path", Arrays.asList("CAT", "HAT", "HEAT", "WHEAT"), first.getShortestPath("CAT", "WHEAT"));
+        assertEquals("old distance", -1, (int) first.getShortestDistance("CAT", "KIT"));
+        assertNull("new path", second.getShortestPath("CAT", "WHEAT"));
+        assertEquals("new distance", 2, (int) second.getShortestDistance("CAT", "KIT"));
+        assertEquals("new path to added word", Arrays.asList("CAT", "KAT", "KIT"), second.getShortestPath("CAT", "KIT"));
+        assertEquals("path to itself", Arrays.asList("CAT"), second.getShortestPath("CAT", "CAT"));
+        assertEquals("distance to missing word", -1, (int) second.getShortestDistance("CAT", "DOG"));
+    }
+
+    /**
+     * Test that a version keeps looking its words up in the table of the processor while the table
+     * grows and rehashes, without seeing the words added after it was published
+     */
+    @Test
+    public final void versionShouldShareWordsAddedBefore() {
+        processor.setQueryMode(GraphProcessor.QueryMode.BIDIRECTIONAL);
+        GraphVersion first = processor.publish();
+        List<String> added = TestSupport.randomWords(new Random(400), 500, 5, 5, "ABCDEFG");
+        processor.addWords(added);
+        GraphVersion second = processor.publish();
+
+        assertEquals("indices of the first version", 7, first.graph().indexBound());
+        for (String word : Arrays.asList("CAT", "HAT", "HEAT", "WHEAT", "KIT", "RAT", "ZZZ"))
+            assertEquals("word of the first version", word, first.graph().vertexAt(first.graph().indexOf(word)));
+        for (String word : added) {
+            assertEquals("word added later " + word, -1, first.graph().indexOf(word));
+            assertEquals("word of the second version", word, second.graph().vertexAt(second.graph().indexOf(word)));
+        }
+        assertEquals("path of the first version", Arrays.asList("CAT", "HAT", "HEAT", "WHEAT"),
+                first.getShortestPath("CAT", "WHEAT"));
+        processor.removeWord("HEAT");
+        assertEquals("path after removing a word", Arrays.asList("CAT", "HAT", "HEAT", "WHEAT"),
+                first.getShortestPath("CAT", "WHEAT"));
+        assertNull("removed word in the next version", processor.publish().graph().getNeighbors("HEAT"));
+    }
+
+    /**
+     * Test that a version answers single pairs and batches like the processor in every query mode
+     */
+    @Test
+    public final void versionShouldAnswerLikeProcessor() {
+        List<String> words = Arrays.asList("CAT", "HAT", "HEAT", "WHEAT", "KIT", "RAT", "ZZZ", "DOG");
+        processor.shortestPathPrecomputation();
+        for (GraphProcessor.QueryMode mode : GraphProcessor.QueryMode.values()) {
+            processor.setQueryMode(mode);
+            GraphVersion version = processor.publish();
+            assertEquals("mode", mode, version.queryMode());
+            for (String word1 : words) {
+                for (String word2 : words) {
+                    assertEquals(mode + " distance " + word1 + " " + word2, processor.getShortestDistance(word1, word2),
+                            version.getShortestDistance(word1, word2));
+                    List<String> path = version.getShortestPath(word1, word2);
+                    assertEquals(mode + " path " + word1 + " " + word2, processor.getShortestPath(word1, word2) == null,
+                            path == null);
+                    if (path != null)
+                        assertValidPath(path, word1, word2, version.getShortestDistance(word1, word2));
+                }
+            }
+            List<String> words1 = new ArrayList<>();
+            List<String> words2 = new ArrayList<>();
+            for (String word1 : words) {
+                for (String word2 : words) {
+                    words1.add(word1);
+                    words2.add(word2);
+                }
+            }
+            List<List<String>> paths = version.getShortestPaths(words1, words2);
+            for (int i = 0; i < paths.size(); i++) {
+                int distance = version.getShortestDistance(words1.get(i), words2.get(i));
+                assertEquals(mode + " batch found " + words1.get(i) + " " + words2.get(i), distance < 0, paths.get(i) == null);
+                if (paths.get(i) != null)
+                    assertValidPath(paths.get(i), words1.get(i), words2.get(i), distance);
+            }
+        }
+    }
+
+    /**
+     * Test that readers querying the published versions see valid paths while a writer keeps updating
+     * the graph and publishing
+     */
+    @Test
+    public final void readersShouldSeeConsistentVersionsWhileWriting() throws Exception {
+        // short words over a small alphabet so that most of them are connected
+        List<String> words = TestSupport.randomWords(new Random(400), 300, 4, 4, "ABCDE");
+        Files.write(dictionary.toPath(), words);
+        processor = new GraphProcessor();
+        processor.populateGraph(dictionary.getPath());
+        processor.shortestPathPrecomputation();
+        processor.publish();
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            Random updates = new Random(1);
+            for (int i = 0; i < 200; i++) {
+                String word = words.get(updates.nextInt(words.size()));
+                if (!processor.removeWord(word))
+                    processor.addWord(word);
+                processor.publish();
+            }
+        });
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            long seed = r;
+            readers.add(new Thread(() -> {
+                Random queries = new Random(seed);
+                try {
+                    while (writer.isAlive()) {
+                        GraphVersion version = processor.getPublished();
+                        String word1 = words.get(queries.nextInt(words.size()));
+                        String word2 = words.get(queries.nextInt(words.size()));
+                        int distance = version.getShortestDistance(word1, word2);
+                        List<String> path = version.getShortestPath(word1, word2);
+                        assertEquals("found " + word1 + " " + word2, distance < 0, path == null);
+                        if (path != null)
+                            assertValidPath(path, word1, word2, distance);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+        writer.start();
+        for (Thread reader : readers)
+            reader.start();
+        writer.join();
+        for (Thread reader : readers)
+            reader.join();
+
+        if (failure.get() != null)
+            throw new AssertionError(failure.get());
+        assertEquals("versions", 201, processor.getPublished().version());
+    }
+
+    /**
+     * Asserts that a path goes from word1 to word2 through adjacent words in distance steps
+     */
+    private static void assertValidPath(List<String> path, String word1, String word2, int distance) {
+        assertEquals("length of " + path, distance + 1, path.size());
+        assertEquals("first word of " + path, word1, path.get(0));
+        assertEquals("last word of " + path, word2, path.get(path.size() - 1));
+        for (int i = 1; i < path.size(); i++)
+            assertTrue("adjacent in " + path, WordProcessor.isAdjacent(path.get(i - 1), path.get(i)));
+    }
+}
@@ -0,0 +1,56 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       IndexedGraph.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * A graph whose vertices are also reachable through dense int indices, so traversals
+ * can keep their state in primitive arrays instead of maps keyed by vertex.
+ * 
+ * The index of a vertex stays the same until that vertex is removed. An index freed by
+ * a removal may be handed out again to a vertex added later.
+ * 
+ * @param <E> type of a vertex
+ */
+public interface IndexedGraph<E> extends GraphADT<E> {
+    
+    /**
+     * Get the index of a vertex
+     * 
+     * @param vertex the vertex
+     * @return index of the vertex, -1 if vertex is null or not in the graph
+     */
+    public int indexOf(E vertex);
+    
+    /**
+     * Get the vertex stored at an index
+     * 
+     * @param index the index, between 0 and {@link #indexBound()}
+     * @return the vertex, null if no vertex currently uses that index
+     */
+    public E vertexAt(int index);
+    
+    /**
+     * @return a bound such that every index in use is less than it, sized for arrays indexed by vertex
+     */
+    public int indexBound();
+    
+    /**
+     * @param index index of a vertex in the graph
+     * @return number of neighbors of that vertex
+     */
+    public int degree(int index);
+    
+    /**
+     * Copies the indices of all neighbors of a vertex into dest
+     * 
+     * @param index index of a vertex in the graph
+     * @param dest array with room for at least {@link #degree(int)} indices
+     * @return number of indices written to dest
+     */
+    public int neighborIndices(int index, int[] dest);
+}
@@ -0,0 +1,139 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       IndexedMinHeap.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Binary min heap of vertex indices ordered by a long key, which can lower the key of a vertex
+ * already in the heap. Everything lives in primitive arrays indexed by heap position or by vertex.
+ */
+public class IndexedMinHeap {
+
+    /**
+     * Vertex at each heap position
+     */
+    private int[] heap = new int[0];
+
+    /**
+     * Key per vertex index, only meaningful while the vertex is in the heap
+     */
+    private long[] key = new long[0];
+
+    /**
+     * Heap position per vertex index, -1 if the vertex is not in the heap
+     */
+    private int[] position = new int[0];
+
+    private int size;
+
+    /**
+     * Empties the heap and makes room for bound vertices
+     *
+     * @param bound every vertex index pushed is less than bound
+     */
+    public void reset(int bound) {
+        if (bound > position.length) {
+            heap = new int[bound];
+            key = new long[bound];
+            position = new int[bound];
+            Arrays.fill(position, -1);
+        } else {
+            for (int i = 0; i < size; i++)
+                position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * @return true if the heap holds no vertex
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return number of vertices in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param vertex index of a vertex
+     * @return true if the vertex is in the heap
+     */
+    public boolean contains(int vertex) {
+        return position[vertex] >= 0;
+    }
+
+    /**
+     * Adds a vertex, or lowers its key if it is already in the heap with a larger one
+     *
+     * @param vertex index of the vertex
+     * @param newKey key of the vertex
+     */
+    public void push(int vertex, long newKey) {
+        if (position[vertex] < 0) {
+            heap[size] = vertex;
+            position[vertex] = size++;
+        } else if (newKey >= key[vertex]) {
+            return;
+        }
+        key[vertex] = newKey;
+        siftUp(position[vertex]);
+    }
+
+    /**
+     * Removes the vertex with the smallest key
+     *
+     * @return index of that vertex
+     */
+    public int pop() {
+        int top = heap[0];
+        position[top] = -1;
+        if (--size > 0) {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int i) {
+        int vertex = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (key[heap[parent]] <= key[vertex])
+                break;
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = vertex;
+        position[vertex] = i;
+    }
+
+    private void siftDown(int i) {
+        int vertex = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && key[heap[child + 1]] < key[heap[child]])
+                child++;
+            if (key[vertex] <= key[heap[child]])
+                break;
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = vertex;
+        position[vertex] = i;
+    }
+}
@@ -0,0 +1,163 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       JfrMetrics.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.Timespan;
+
+/**
+ * Metrics recorded in memory like by {@link MetricsRecorder} and also emitted as JDK Flight Recorder events,
+ * so they show up in a recording next to the GC and thread events, e.g. with
+ * java -XX:StartFlightRecording:filename=run.jfr, then jfr print --categories "Word Ladder" run.jfr
+ *
+ * Phases, queries and failures are one event each, the counters are emitted as their totals once a second.
+ * Events cost nothing beyond the in memory recording while no recording is running.
+ * {@link #close()} stops the counter events.
+ */
+public class JfrMetrics extends MetricsRecorder implements AutoCloseable {
+
+    private final Runnable emitCounters = this::emitCounters;
+
+    public JfrMetrics() {
+        FlightRecorder.addPeriodicEvent(CountersEvent.class, emitCounters);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void phase(Phase phase, long nanos) {
+        super.phase(phase, nanos);
+        PhaseEvent event = new PhaseEvent();
+        if (event.isEnabled()) {
+            event.phase = phase.name();
+            event.elapsed = nanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void query(GraphProcessor.QueryMode mode, long nanos, boolean found) {
+        super.query(mode, nanos, found);
+        QueryEvent event = new QueryEvent();
+        if (event.isEnabled()) {
+            event.mode = mode.name();
+            event.elapsed = nanos;
+            event.found = found;
+            event.commit();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void failed(Phase phase, Exception exception) {
+        super.failed(phase, exception);
+        FailureEvent event = new FailureEvent();
+        if (event.isEnabled()) {
+            event.phase = phase.name();
+            event.message = String.valueOf(exception);
+            event.commit();
+        }
+    }
+
+    /**
+     * Stops emitting the counter events
+     */
+    @Override
+    public void close() {
+        FlightRecorder.removePeriodicEvent(emitCounters);
+    }
+
+    private void emitCounters() {
+        CountersEvent event = new CountersEvent();
+        event.wordsRead = total(Counter.WORDS_READ);
+        event.adjacencyChecks = total(Counter.ADJACENCY_CHECKS);
+        event.edgesAdded = total(Counter.EDGES_ADDED);
+        event.nodesExpanded = total(Counter.NODES_EXPANDED);
+        event.cacheHits = total(Counter.CACHE_HITS);
+        event.cacheMisses = total(Counter.CACHE_MISSES);
+        event.commit();
+    }
+
+    @Name("wordladder.Phase")
+    @Label("Graph Phase")
+    @Category("Word Ladder")
+    @Description("A step of building the graph or its shortest paths")
+    static class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+    }
+
+    @Name("wordladder.Query")
+    @Label("Shortest Path Query")
+    @Category("Word Ladder")
+    @Description("A getShortestPath or getShortestDistance call")
+    static class QueryEvent extends Event {
+        @Label("Mode")
+        String mode;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+
+        @Label("Found")
+        boolean found;
+    }
+
+    @Name("wordladder.Failure")
+    @Label("Graph Failure")
+    @Category("Word Ladder")
+    @Description("A step of building the graph which failed, like reading a missing dictionary")
+    static class FailureEvent extends Event {
+        @Label("Phase")
+        String phase;
+
+        @Label("Message")
+        String message;
+    }
+
+    @Name("wordladder.Counters")
+    @Label("Graph Counters")
+    @Category("Word Ladder")
+    @Description("Totals of the graph counters so far")
+    @Period("1 s")
+    static class CountersEvent extends Event {
+        @Label("Words Read")
+        long wordsRead;
+
+        @Label("Adjacency Checks")
+        long adjacencyChecks;
+
+        @Label("Edges Added")
+        long edgesAdded;
+
+        @Label("Nodes Expanded")
+        long nodesExpanded;
+
+        @Label("Cache Hits")
+        long cacheHits;
+
+        @Label("Cache Misses")
+        long cacheMisses;
+    }
+}
@@ -0,0 +1,259 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       MappedPathTable.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * All pairs shortest path store kept in a memory mapped file instead of on the heap.
+ *
+ * The file is a header followed by two dense bound x bound matrices stored row by row:
+ *  int magic, int version, long fingerprint of the graph, int bound, int bytes per distance,
+ *  int bytes per predecessor, int unused
+ *  the distances, one byte each when every distance fits in a byte and two otherwise, -1 where there is no path
+ *  the predecessors, two unsigned bytes holding predecessor + 1 when the bound allows it and four bytes otherwise
+ * Lookups read the mapped pages directly, so the paths take no heap, survive restarts, and
+ * the operating system shares the pages between every process mapping the same file.
+ * The store is read only, each matrix is mapped in segments of whole rows below 2 GB each.
+ */
+public class MappedPathTable implements PathStore {
+
+    private static final int MAGIC = 0x57475054;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private final int bound;
+    private final Matrix distance;
+    private final Matrix predecessor;
+
+    private MappedPathTable(int bound, Matrix distance, Matrix predecessor) {
+        this.bound = bound;
+        this.distance = distance;
+        this.predecessor = predecessor;
+    }
+
+    /**
+     * Computes a value identifying a graph together with its vertex indices, which a store
+     * must have been written for before it can answer queries about the graph
+     *
+     * @param graph the graph
+     * @return CRC32 of the words in index order and of their neighbor indices
+     */
+    public static long fingerprint(IndexedGraph<String> graph) {
+        CRC32 crc = new CRC32();
+        int[] neighbors = new int[16];
+        for (int i = 0; i < graph.indexBound(); i++) {
+            if (graph.vertexAt(i) == null) {
+                crc.update(0);
+                continue;
+            }
+            crc.update(graph.vertexAt(i).getBytes(StandardCharsets.UTF_8));
+            crc.update('\n');
+            if (graph.degree(i) > neighbors.length)
+                neighbors = new int[Math.max(graph.degree(i), neighbors.length * 2)];
+            int degree = graph.neighborIndices(i, neighbors);
+            for (int j = 0; j < degree; j++) {
+                crc.update(neighbors[j] >>> 24);
+                crc.update(neighbors[j] >>> 16);
+                crc.update(neighbors[j] >>> 8);
+                crc.update(neighbors[j]);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Writes the paths of a store to a file, replacing the file only once the new one is complete
+     *
+     * @param path file path to write
+     * @param store the paths to write
+     * @param fingerprint fingerprint of the graph the paths belong to, see {@link #fingerprint(IndexedGraph)}
+     * @throws IOException exception resulting from writing the file
+     */
+    public static void write(String path, PathStore store, long fingerprint) throws IOException {
+        int bound = store.bound();
+        int longest = 0;
+        for (int source = 0; source < bound; source++)
+            for (int target = 0; target < bound; target++)
+                longest = Math.max(longest, store.distance(source, target));
+        int distanceBytes = longest <= Byte.MAX_VALUE ? 1 : 2;
+        int predecessorBytes = bound <= 0xFFFF ? 2 : 4;
+
+        Path temporary = Paths.get(path + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putLong(fingerprint).putInt(bound)
+                    .putInt(distanceBytes).putInt(predecessorBytes).putInt(0);
+            header.force();
+
+            Matrix distance = new Matrix(channel, FileChannel.MapMode.READ_WRITE, HEADER_BYTES, bound, distanceBytes, false);
+            Matrix predecessor = new Matrix(channel, FileChannel.MapMode.READ_WRITE, distance.end(), bound, predecessorBytes, true);
+            for (int source = 0; source < bound; source++) {
+                for (int target = 0; target < bound; target++) {
+                    int hops = store.distance(source, target);
+                    distance.put(source, target, hops);
+                    predecessor.put(source, target, hops > 0 ? store.predecessor(source, target) : -1);
+                }
+            }
+            distance.force();
+            predecessor.force();
+        }
+        Files.move(temporary, Paths.get(path), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Maps a file written by {@link #write(String, PathStore, long)}
+     *
+     * @param path file path of the store
+     * @param fingerprint fingerprint of the graph the paths should belong to
+     * @return the store, null if it was written for a different graph
+     * @throws IOException exception resulting from accessing the file, or if it is not a store of this version
+     */
+    public static MappedPathTable open(String path, long fingerprint) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES)
+                throw new IOException(path + " is not a path store");
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC)
+                throw new IOException(path + " is not a path store");
+            if (header.getInt() != VERSION)
+                throw new IOException(path + " is a path store of an unsupported version");
+            if (header.getLong() != fingerprint)
+                return null;
+            int bound = header.getInt();
+            int distanceBytes = header.getInt();
+            int predecessorBytes = header.getInt();
+            //checks the header before sizing anything with it
+            if (bound < 0)
+                throw new IOException(path + " has a negative index bound");
+            if (!isWidth(distanceBytes) || !isWidth(predecessorBytes))
+                throw new IOException(path + " has a cell width other than 1, 2 or 4 bytes");
+            if (HEADER_BYTES + (long) bound * bound * (distanceBytes + predecessorBytes) > channel.size())
+                throw new IOException(path + " is a truncated path store");
+
+            //mappings stay valid after the channel is closed
+            Matrix distance = new Matrix(channel, FileChannel.MapMode.READ_ONLY, HEADER_BYTES, bound, distanceBytes, false);
+            Matrix predecessor = new Matrix(channel, FileChannel.MapMode.READ_ONLY, distance.end(), bound, predecessorBytes, true);
+            return new MappedPathTable(bound, distance, predecessor);
+        }
+    }
+
+    /**
+     * @return true if a matrix can hold cells of the given number of bytes
+     */
+    private static boolean isWidth(int bytes) {
+        return bytes == 1 || bytes == 2 || bytes == 4;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int bound() {
+        return bound;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int distance(int source, int target) {
+        if (source < 0 || target < 0 || source >= bound || target >= bound)
+            return -1;
+        return distance.get(source, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int predecessor(int source, int target) {
+        return predecessor.get(source, target);
+    }
+
+    /**
+     * Square matrix of numbers from -1 up mapped from a file, in segments of whole rows
+     */
+    private static class Matrix {
+        private final MappedByteBuffer[] segments;
+        private final int width;
+        private final int rowsPerSegment;
+        private final long start;
+        private final long rowBytes;
+        private final int bound;
+        private final boolean shifted;
+
+        /**
+         * @param start position of the first row in the file
+         * @param bound number of rows and of columns
+         * @param width bytes per entry, 1, 2 or 4
+         * @param shifted true to store 2 byte entries as unsigned value + 1, doubling their range
+         */
+        Matrix(FileChannel channel, FileChannel.MapMode mode, long start, int bound, int width, boolean shifted)
+                throws IOException {
+            this.width = width;
+            this.shifted = shifted && width == 2;
+            this.start = start;
+            this.bound = bound;
+            this.rowBytes = (long) bound * width;
+            this.rowsPerSegment = bound == 0 ? 1 : (int) Math.max(1, Integer.MAX_VALUE / rowBytes);
+            this.segments = new MappedByteBuffer[(bound + rowsPerSegment - 1) / rowsPerSegment];
+            for (int i = 0; i < segments.length; i++) {
+                int rows = Math.min(rowsPerSegment, bound - i * rowsPerSegment);
+                segments[i] = channel.map(mode, start + i * rowsPerSegment * rowBytes, rows * rowBytes);
+            }
+        }
+
+        /**
+         * @return position in the file right after the last row
+         */
+        long end() {
+            return start + bound * rowBytes;
+        }
+
+        int get(int row, int column) {
+            MappedByteBuffer segment = segments[row / rowsPerSegment];
+            int position = (int) ((row % rowsPerSegment) * rowBytes) + column * width;
+            if (width == 1)
+                return segment.get(position);
+            if (shifted)
+                return (segment.getShort(position) & 0xFFFF) - 1;
+            if (width == 2)
+                return segment.getShort(position);
+            return segment.getInt(position);
+        }
+
+        void put(int row, int column, int value) {
+            MappedByteBuffer segment = segments[row / rowsPerSegment];
+            int position = (int) ((row % rowsPerSegment) * rowBytes) + column * width;
+            if (width == 1)
+                segment.put(position, (byte) value);
+            else if (shifted)
+                segment.putShort(position, (short) (value + 1));
+            else if (width == 2)
+                segment.putShort(position, (short) value);
+            else
+                segment.putInt(position, value);
+        }
+
+        void force() {
+            for (MappedByteBuffer segment : segments)
+                segment.force();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       MetricsRecorder.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics kept in memory: the total of every counter, the total time and number of runs of every phase,
+ * the number of failures, and a latency histogram per query mode.
+ * All of it can be updated from several threads at once.
+ */
+public class MetricsRecorder implements GraphMetrics {
+
+    private final LongAdder[] counters = adders(Counter.values().length);
+    private final LongAdder[] phaseNanos = adders(Phase.values().length);
+    private final LongAdder[] phaseRuns = adders(Phase.values().length);
+    private final LongAdder failures = new LongAdder();
+    private final Histogram[] latencies = new Histogram[GraphProcessor.QueryMode.values().length];
+
+    public MetricsRecorder() {
+        for (int i = 0; i < latencies.length; i++)
+            latencies[i] = new Histogram();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void phase(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()].add(nanos);
+        phaseRuns[phase.ordinal()].increment();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void count(Counter counter, long amount) {
+        counters[counter.ordinal()].add(amount);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void query(GraphProcessor.QueryMode mode, long nanos, boolean found) {
+        latencies[mode.ordinal()].record(nanos);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void failed(Phase phase, Exception exception) {
+        failures.increment();
+    }
+
+    /**
+     * @param counter a counter
+     * @return total counted so far
+     */
+    public long total(Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * @param phase a phase
+     * @return total nanoseconds spent in the phase so far
+     */
+    public long phaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()].sum();
+    }
+
+    /**
+     * @param phase a phase
+     * @return number of times the phase ran so far
+     */
+    public long phaseRuns(Phase phase) {
+        return phaseRuns[phase.ordinal()].sum();
+    }
+
+    /**
+     * @return number of failed phases so far
+     */
+    public long failures() {
+        return failures.sum();
+    }
+
+    /**
+     * @param mode a query mode
+     * @return the latencies of the queries answered in the mode
+     */
+    public Histogram latencies(GraphProcessor.QueryMode mode) {
+        return latencies[mode.ordinal()];
+    }
+
+    /**
+     * @return every counter, phase and query mode which recorded something, one per line
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Phase phase : Phase.values())
+            if (phaseRuns(phase) > 0)
+                text.append(String.format("%s: %d runs, %.3f ms%n", phase, phaseRuns(phase), phaseNanos(phase) / 1e6));
+        for (Counter counter : Counter.values())
+            if (total(counter) > 0)
+                text.append(String.format("%s: %d%n", counter, total(counter)));
+        for (GraphProcessor.QueryMode mode : GraphProcessor.QueryMode.values())
+            if (latencies(mode).count() > 0)
+                text.append(String.format("%s queries: %s%n", mode, latencies(mode)));
+        if (failures() > 0)
+            text.append(String.format("failures: %d%n", failures()));
+        return text.toString();
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++)
+            adders[i] = new LongAdder();
+        return adders;
+    }
+
+    /**
+     * Histogram of nanosecond latencies with 4 buckets per power of two, so a percentile is
+     * off by at most a quarter of its value. Recording is a single atomic increment.
+     */
+    public static class Histogram {
+        private static final int BUCKETS = 4 * 62;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder total = new LongAdder();
+
+        /**
+         * @param nanos a latency in nanoseconds
+         */
+        public void record(long nanos) {
+            counts.incrementAndGet(bucket(Math.max(0, nanos)));
+            total.add(nanos);
+        }
+
+        /**
+         * @return number of latencies recorded
+         */
+        public long count() {
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++)
+                count += counts.get(i);
+            return count;
+        }
+
+        /**
+         * @return mean latency in nanoseconds, 0 if none was recorded
+         */
+        public double mean() {
+            long count = count();
+            return count == 0 ? 0 : total.sum() / (double) count;
+        }
+
+        /**
+         * @param percentile between 0 and 100
+         * @return the largest latency of the bucket holding the percentile in nanoseconds, 0 if none was recorded
+         */
+        public long percentile(double percentile) {
+            long count = count();
+            long rank = (long) Math.ceil(count * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= Math.max(rank, 1))
+                    return i + 1 < BUCKETS ? lowest(i + 1) - 1 : Long.MAX_VALUE;
+            }
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d, mean %.1f us, p50 %.1f us, p99 %.1f us, p99.9 %.1f us", count(), mean() / 1e3,
+                    percentile(50) / 1e3, percentile(99) / 1e3, percentile(99.9) / 1e3);
+        }
+
+        /**
+         * @return bucket of a latency, the latencies below 4 have a bucket each
+         */
+        static int bucket(long nanos) {
+            if (nanos < 4)
+                return (int) nanos;
+            int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            //the two bits after the highest one pick the quarter
+            return (exponent - 1) * 4 + (int) ((nanos >>> (exponent - 2)) & 3);
+        }
+
+        /**
+         * @return smallest latency of a bucket
+         */
+        static long lowest(int bucket) {
+            if (bucket < 4)
+                return bucket;
+            return (4L + bucket % 4) << (bucket / 4 - 1);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/////////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       MetricsRecorderTest.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class MetricsRecorder, and the metrics GraphProcessor records to it
+ */
+public class MetricsRecorderTest {
+    private MetricsRecorder metrics;
+    private GraphProcessor processor;
+    private File dictionary;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.dictionary = File.createTempFile("dictionary", ".txt");
+        this.dictionary.deleteOnExit();
+        Files.write(dictionary.toPath(), Arrays.asList("cat", "hat", "heat", "wheat", "kit", "rat", "zzz"));
+        this.metrics = new MetricsRecorder();
+        this.processor = new GraphProcessor();
+        this.processor.setMetrics(metrics);
+    }
+    
+    /**
+     * Test that populating and precomputing time every phase and count the words and edges
+     */
+    @Test
+    public final void buildShouldRecordPhasesAndCounters() {
+        processor.populateGraph(dictionary.getPath());
+        processor.shortestPathPrecomputation();
+        
+        for (GraphMetrics.Phase phase : GraphMetrics.Phase.values())
+            assertEquals("runs of phase " + phase, 1, metrics.phaseRuns(phase));
+        assertEquals("words read", 7, metrics.total(GraphMetrics.Counter.WORDS_READ));
+        // cat-hat, cat-rat, hat-rat, hat-heat, heat-wheat
+        assertEquals("edges added", 5, metrics.total(GraphMetrics.Counter.EDGES_ADDED));
+        assertTrue("adjacency checks", metrics.total(GraphMetrics.Counter.ADJACENCY_CHECKS) >= 5);
+        // a search from each of the 5 words of the component of cat
+        assertEquals("words expanded by the precomputation", 25, metrics.total(GraphMetrics.Counter.NODES_EXPANDED));
+    }
+    
+    /**
+     * Test that queries are recorded in the histogram of their mode and lazy queries count cache hits
+     */
+    @Test
+    public final void queriesShouldRecordLatencyAndCacheHits() {
+        processor.populateGraph(dictionary.getPath());
+        processor.setQueryMode(GraphProcessor.QueryMode.LAZY);
+        processor.getShortestPath("CAT", "WHEAT");
+        processor.getShortestDistance("CAT", "HEAT");
+        processor.getShortestPath("CAT", "ZZZ");
+        
+        assertEquals("lazy queries", 3, metrics.latencies(GraphProcessor.QueryMode.LAZY).count());
+        assertEquals("precomputed queries", 0, metrics.latencies(GraphProcessor.QueryMode.PRECOMPUTED).count());
+        // the query to ZZZ is answered by the components before the cache
+        assertEquals("cache misses", 1, metrics.total(GraphMetrics.Counter.CACHE_MISSES));
+        assertEquals("cache hits", 1, metrics.total(GraphMetrics.Counter.CACHE_HITS));
+        // the miss searched the 5 words of the component of cat
+        assertEquals("words expanded by the miss", 5, metrics.total(GraphMetrics.Counter.NODES_EXPANDED));
+    }
+    
+    /**
+     * Test that populating on a pool counts the adjacency checks of its tasks
+     */
+    @Test
+    public final void poolBuildShouldCountAdjacencyChecks() {
+        processor.setPool(new ForkJoinPool(2));
+        processor.populateGraph(dictionary.getPath());
+        
+        assertEquals("edges added", 5, metrics.total(GraphMetrics.Counter.EDGES_ADDED));
+        assertTrue("adjacency checks", metrics.total(GraphMetrics.Counter.ADJACENCY_CHECKS) >= 5);
+    }
+    
+    /**
+     * Test that a missing dictionary is recorded as a failure
+     */
+    @Test
+    public final void missingDictionaryShouldRecordFailure() {
+        processor.populateGraph(dictionary.getPath() + ".missing");
+        assertEquals("failures", 1, metrics.failures());
+    }
+    
+    /**
+     * Test that percentiles are within a quarter of the recorded latencies
+     */
+    @Test
+    public final void histogramPercentilesShouldBeClose() {
+        MetricsRecorder.Histogram histogram = new MetricsRecorder.Histogram();
+        for (long nanos = 1; nanos <= 100000; nanos++)
+            histogram.record(nanos);
+        
+        assertEquals("count", 100000, histogram.count());
+        assertEquals("mean", 50000.5, histogram.mean(), 0.001);
+        for (double percentile : new double[] {1, 50, 90, 99, 99.9}) {
+            long expected = (long) (100000 * percentile / 100);
+            long actual = histogram.percentile(percentile);
+            assertTrue("percentile " + percentile + " was " + actual,
+                    actual >= expected && actual <= expected + expected / 4);
+        }
+        for (long nanos = 0; nanos < 1L << 40; nanos = nanos * 3 + 1)
+            assertTrue("bucket of " + nanos, MetricsRecorder.Histogram.lowest(MetricsRecorder.Histogram.bucket(nanos)) <= nanos
+                    && MetricsRecorder.Histogram.lowest(MetricsRecorder.Histogram.bucket(nanos) + 1) > nanos);
+    }
+}
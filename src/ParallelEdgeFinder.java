@@ -0,0 +1,143 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       ParallelEdgeFinder.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds all pairs of adjacent words on a ForkJoinPool.
+ *
+ * Adjacent words differ in length by at most 1, so the words are split by length and
+ * every (L, L) and (L, L+1) pair of lengths is searched by its own task against a
+ * {@link WildcardIndex} of the words of one length. Tasks only read the indexes and
+ * collect their edges in their own lists, which are concatenated when the tasks join.
+ */
+public class ParallelEdgeFinder {
+
+    /**
+     * Number of words below which an edge task stops splitting itself
+     */
+    private static final int SPLIT_THRESHOLD = 512;
+
+    /**
+     * Finds every pair of adjacent words, the same pairs as {@link WildcardIndex#forEachEdge}
+     *
+     * @param words the words, duplicates are ignored
+     * @param pool the pool to run the tasks on
+     * @return both words of every edge one after the other, each edge once
+     */
+    public static List<String> findEdges(Collection<String> words, ForkJoinPool pool) {
+        return findEdges(words, pool, new LongAdder());
+    }
+
+    /**
+     * Finds every pair of adjacent words, counting the candidate words compared by all tasks
+     *
+     * @param words the words, duplicates are ignored
+     * @param pool the pool to run the tasks on
+     * @param compared receives the number of candidate words compared with a word
+     * @return both words of every edge one after the other, each edge once
+     */
+    public static List<String> findEdges(Collection<String> words, ForkJoinPool pool, LongAdder compared) {
+        //splits the words by length
+        TreeMap<Integer, List<String>> byLength = new TreeMap<Integer, List<String>>();
+        for (String word : new LinkedHashSet<String>(words))
+            if (!word.isEmpty())
+                byLength.computeIfAbsent(word.length(), length -> new ArrayList<String>()).add(word);
+
+        return pool.invoke(new RecursiveTask<List<String>>() {
+            @Override
+            protected List<String> compute() {
+                //one index per length, built in parallel
+                TreeMap<Integer, ForkJoinTask<WildcardIndex>> indexes = new TreeMap<Integer, ForkJoinTask<WildcardIndex>>();
+                for (List<String> sameLength : byLength.values()) {
+                    indexes.put(sameLength.get(0).length(), ForkJoinTask.adapt(() -> {
+                        WildcardIndex index = new WildcardIndex();
+                        for (String word : sameLength)
+                            index.add(word);
+                        return index;
+                    }).fork());
+                }
+
+                //then an edge task for each (L, L) and (L, L+1) pair of lengths
+                List<EdgeTask> tasks = new ArrayList<EdgeTask>();
+                for (Integer length : byLength.keySet()) {
+                    tasks.add(new EdgeTask(byLength.get(length), indexes.get(length).join(), 0, byLength.get(length).size(), compared));
+                    if (indexes.containsKey(length + 1))
+                        tasks.add(new EdgeTask(byLength.get(length), indexes.get(length + 1).join(), 0, byLength.get(length).size(), compared));
+                }
+
+                List<String> edges = new ArrayList<String>();
+                for (EdgeTask task : ForkJoinTask.invokeAll(tasks))
+                    edges.addAll(task.join());
+                return edges;
+            }
+        });
+    }
+
+    /**
+     * Finds the neighbors of words[from] up to words[to] in an index of words of the same length
+     * or of words which are one character longer, splitting itself in halves while the range is large
+     */
+    private static class EdgeTask extends RecursiveTask<List<String>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> words;
+        private final WildcardIndex index;
+        private final int from;
+        private final int to;
+        private final LongAdder compared;
+
+        EdgeTask(List<String> words, WildcardIndex index, int from, int to, LongAdder compared) {
+            this.words = words;
+            this.index = index;
+            this.from = from;
+            this.to = to;
+            this.compared = compared;
+        }
+
+        @Override
+        protected List<String> compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                EdgeTask right = new EdgeTask(words, index, middle, to, compared);
+                right.fork();
+                List<String> edges = new EdgeTask(words, index, from, middle, compared).compute();
+                edges.addAll(right.join());
+                return edges;
+            }
+
+            List<String> edges = new ArrayList<String>();
+            List<String> neighbors = new ArrayList<String>();
+            long checks = 0;
+            for (int i = from; i < to; i++) {
+                String word = words.get(i);
+                neighbors.clear();
+                checks += index.neighbors(word, neighbors);
+                for (String neighbor : neighbors) {
+                    //edges between words of the same length are found from both ends, keeps one
+                    if (neighbor.length() != word.length() || word.compareTo(neighbor) < 0) {
+                        edges.add(word);
+                        edges.add(neighbor);
+                    }
+                }
+            }
+            //one update per task rather than per word
+            compared.add(checks);
+            return edges;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       PathStore.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Read access to precomputed shortest paths between vertices, indexed by vertex index.
+ * 
+ * A path is rebuilt by following predecessors back from its target.
+ */
+public interface PathStore {
+    
+    /**
+     * @return every vertex index in the store is less than this
+     */
+    public int bound();
+    
+    /**
+     * @param source index of the first vertex
+     * @param target index of the second vertex
+     * @return number of edges on a shortest path from source to target, -1 if there is none or the store does not know
+     */
+    public int distance(int source, int target);
+    
+    /**
+     * @param source index of the first vertex
+     * @param target index of a vertex reachable from source
+     * @return index of the vertex before target on a shortest path from source, -1 if target is source
+     */
+    public int predecessor(int source, int target);
+}
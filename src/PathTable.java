@@ -0,0 +1,171 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       PathTable.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * All pairs shortest path table indexed by vertex index.
+ *
+ * Holds one row per source: a short distance and an int predecessor per target.
+ * A path is rebuilt on request by following predecessors back from the target, so the
+ * table takes 6 bytes per pair of vertices no matter how long the paths are. Rows are
+ * separate arrays so different threads can fill different rows.
+ *
+ * A {@link #snapshot()} shares the rows with the table, a shared row is copied before the table
+ * updates it, so the snapshot never changes.
+ */
+public class PathTable implements PathStore {
+
+    private int bound;
+    private short[][] distance;
+    private int[][] predecessor;
+
+    /**
+     * Rows which a snapshot also holds, null before the first snapshot
+     */
+    private boolean[] shared;
+
+    /**
+     * @param bound every vertex index in the table is less than bound
+     */
+    public PathTable(int bound) {
+        this.bound = bound;
+        this.distance = new short[bound][];
+        this.predecessor = new int[bound][];
+    }
+
+    private PathTable(int bound, short[][] distance, int[][] predecessor) {
+        this.bound = bound;
+        this.distance = distance;
+        this.predecessor = predecessor;
+    }
+
+    /**
+     * Makes a table holding the current paths which later updates of this table do not change.
+     * Takes time in the number of rows, a row is only copied when this table updates it.
+     *
+     * @return the snapshot
+     */
+    public PathTable snapshot() {
+        shared = new boolean[bound];
+        Arrays.fill(shared, true);
+        return new PathTable(bound, distance.clone(), predecessor.clone());
+    }
+
+    /**
+     * Stores the row of the source of a search
+     *
+     * @param search a finished search over all vertices reachable from its source
+     * @throws IllegalStateException if a distance does not fit in a short
+     */
+    public void fill(BreadthFirstSearch search) {
+        short[] distanceRow = new short[bound];
+        int[] predecessorRow = new int[bound];
+        Arrays.fill(distanceRow, (short) -1);
+        for (int i = 0; i < search.visitedCount(); i++) {
+            int target = search.visited(i);
+            if (search.distance(target) > Short.MAX_VALUE)
+                throw new IllegalStateException("path longer than " + Short.MAX_VALUE + " words");
+            distanceRow[target] = (short) search.distance(target);
+            predecessorRow[target] = search.predecessor(target);
+        }
+        distance[search.source()] = distanceRow;
+        predecessor[search.source()] = predecessorRow;
+        unshare(search.source());
+    }
+
+    /**
+     * Makes room for vertex indices up to bound, new rows are empty and existing rows are widened when written
+     *
+     * @param bound every vertex index in the table will be less than bound
+     */
+    public void ensureBound(int bound) {
+        if (bound <= this.bound)
+            return;
+        this.bound = bound;
+        distance = Arrays.copyOf(distance, bound);
+        predecessor = Arrays.copyOf(predecessor, bound);
+        if (shared != null)
+            shared = Arrays.copyOf(shared, bound);
+    }
+
+    /**
+     * Gets the distance row of a source for updating it in place, allocating or widening it as needed,
+     * and copying it if a snapshot holds it
+     *
+     * @param source index of the source vertex
+     * @return distances from source per target index, -1 where there is no path
+     */
+    public short[] distanceRow(int source) {
+        if (distance[source] == null || distance[source].length < bound) {
+            int from = distance[source] == null ? 0 : distance[source].length;
+            distance[source] = distance[source] == null ? new short[bound] : Arrays.copyOf(distance[source], bound);
+            predecessor[source] = predecessor[source] == null ? new int[bound] : Arrays.copyOf(predecessor[source], bound);
+            Arrays.fill(distance[source], from, bound, (short) -1);
+        } else if (shared != null && shared[source]) {
+            distance[source] = distance[source].clone();
+            predecessor[source] = predecessor[source].clone();
+        }
+        unshare(source);
+        return distance[source];
+    }
+
+    /**
+     * Gets the predecessor row of a source for updating it in place, see {@link #distanceRow(int)}
+     *
+     * @param source index of the source vertex
+     * @return predecessors on shortest paths from source per target index
+     */
+    public int[] predecessorRow(int source) {
+        distanceRow(source);
+        return predecessor[source];
+    }
+
+    /**
+     * Forgets every path from a source
+     *
+     * @param source index of the source vertex
+     */
+    public void clearRow(int source) {
+        distance[source] = null;
+        predecessor[source] = null;
+        unshare(source);
+    }
+
+    private void unshare(int source) {
+        if (shared != null)
+            shared[source] = false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int bound() {
+        return bound;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int distance(int source, int target) {
+        if (source < 0 || target < 0 || source >= bound || distance[source] == null || target >= distance[source].length)
+            return -1;
+        return distance[source][target];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int predecessor(int source, int target) {
+        return predecessor[source][target];
+    }
+}
@@ -0,0 +1,316 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       PathTableUpdater.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Keeps a {@link PathTable} correct while the graph changes, instead of recomputing all pairs.
+ *
+ * Each update only visits the rows whose shortest paths it can change, and inside such a row
+ * only the vertices whose distance changes:
+ *  after an edge u-v is added, a source is affected when its distances to u and v differ by more
+ *  than 1, and distances only shrink, so a breadth first search starting at the far end of the edge
+ *  and stopping at vertices that do not get closer repairs the row
+ *  after an edge u-v is removed, a source is affected only when the edge is in its shortest path tree,
+ *  and only the subtree hanging below the edge can get further away, so that subtree is re-attached
+ *  to the rest of the tree through its cheapest outside neighbors and the distances inside it are
+ *  settled in order
+ * The graph has to be updated before the matching method is called.
+ * An instance must only be used by one thread at a time.
+ */
+public class PathTableUpdater {
+
+    /**
+     * Vertices waiting to be settled, with the distance they were queued at
+     */
+    private int[] queue = new int[16];
+    private int[] queued = new int[16];
+
+    /**
+     * Vertices of the subtree being repaired, sorted by their distance through outside neighbors
+     */
+    private int[] subtree = new int[16];
+
+    /**
+     * Scratch arrays of {@link #sortByDistance}: the start of each distance, and the sorted vertices
+     */
+    private int[] buckets = new int[16];
+    private int[] sorted = new int[16];
+
+    /**
+     * mark[v] == epoch when v is in the subtree being repaired
+     */
+    private int[] mark = new int[16];
+    private int epoch;
+
+    private int[] neighbors = new int[16];
+
+    private int repairedRows;
+
+    /**
+     * Updates the table after a vertex was added to the graph
+     *
+     * @param table the table to update
+     * @param vertex index of the new vertex, it has no edges yet
+     */
+    public void vertexAdded(PathTable table, int vertex) {
+        repairedRows = 0;
+        table.ensureBound(vertex + 1);
+        table.clearRow(vertex);
+        startRow(table, vertex);
+    }
+
+    /**
+     * Updates the table after a vertex without edges was removed from the graph.
+     * Remove the edges one at a time with {@link #edgeRemoved} first.
+     *
+     * @param table the table to update
+     * @param vertex index of the removed vertex
+     */
+    public void vertexRemoved(PathTable table, int vertex) {
+        repairedRows = 0;
+        table.clearRow(vertex);
+    }
+
+    /**
+     * Updates the table after an edge was added to the graph
+     *
+     * @param graph the graph, already holding the edge
+     * @param table the table to update
+     * @param vertex1 index of one end of the edge
+     * @param vertex2 index of the other end of the edge
+     */
+    public void edgeAdded(IndexedGraph<?> graph, PathTable table, int vertex1, int vertex2) {
+        repairedRows = 0;
+        grow(graph.indexBound());
+        //a vertex the precomputation skipped for having no edges has no row yet
+        if (table.distance(vertex1, vertex1) < 0)
+            startRow(table, vertex1);
+        if (table.distance(vertex2, vertex2) < 0)
+            startRow(table, vertex2);
+        for (int source = 0; source < table.bound(); source++) {
+            if (graph.vertexAt(source) == null || table.distance(source, source) < 0)
+                continue;
+
+            int distance1 = table.distance(source, vertex1);
+            int distance2 = table.distance(source, vertex2);
+            if (distance1 >= 0 && (distance2 < 0 || distance2 > distance1 + 1))
+                decrease(graph, table, source, vertex1, vertex2);
+            else if (distance2 >= 0 && (distance1 < 0 || distance1 > distance2 + 1))
+                decrease(graph, table, source, vertex2, vertex1);
+        }
+    }
+
+    /**
+     * Updates the table after an edge was removed from the graph
+     *
+     * @param graph the graph, no longer holding the edge
+     * @param table the table to update
+     * @param vertex1 index of one end of the edge
+     * @param vertex2 index of the other end of the edge
+     */
+    public void edgeRemoved(IndexedGraph<?> graph, PathTable table, int vertex1, int vertex2) {
+        repairedRows = 0;
+        grow(graph.indexBound());
+        for (int source = 0; source < table.bound(); source++) {
+            if (graph.vertexAt(source) == null || table.distance(source, source) < 0)
+                continue;
+
+            //only a tree edge is on the shortest paths of this source
+            if (table.distance(source, vertex2) > 0 && table.predecessor(source, vertex2) == vertex1)
+                increase(graph, table, source, vertex2);
+            else if (table.distance(source, vertex1) > 0 && table.predecessor(source, vertex1) == vertex2)
+                increase(graph, table, source, vertex1);
+        }
+    }
+
+    /**
+     * @return number of rows the last update had to repair
+     */
+    public int repairedRows() {
+        return repairedRows;
+    }
+
+    /**
+     * Gives a vertex without edges the row reaching only itself
+     */
+    private static void startRow(PathTable table, int vertex) {
+        table.distanceRow(vertex)[vertex] = 0;
+        table.predecessorRow(vertex)[vertex] = -1;
+    }
+
+    /**
+     * Lowers the distances of a row after the edge near-far made far closer to the source
+     */
+    private void decrease(IndexedGraph<?> graph, PathTable table, int source, int near, int far) {
+        repairedRows++;
+        short[] distance = table.distanceRow(source);
+        int[] predecessor = table.predecessorRow(source);
+
+        distance[far] = hops(distance[near] + 1);
+        predecessor[far] = near;
+        queue[0] = far;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int current = queue[head++];
+            int degree = neighborsOf(graph, current);
+            for (int i = 0; i < degree; i++) {
+                int next = neighbors[i];
+                if (distance[next] < 0 || distance[next] > distance[current] + 1) {
+                    distance[next] = hops(distance[current] + 1);
+                    predecessor[next] = current;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Repairs a row after the tree edge into child was removed
+     */
+    private void increase(IndexedGraph<?> graph, PathTable table, int source, int child) {
+        repairedRows++;
+        short[] distance = table.distanceRow(source);
+        int[] predecessor = table.predecessorRow(source);
+        epoch++;
+
+        //collects the subtree of child, its vertices are the only ones which can move away from the source
+        mark[child] = epoch;
+        subtree[0] = child;
+        int size = 1;
+        for (int i = 0; i < size; i++) {
+            int current = subtree[i];
+            int degree = neighborsOf(graph, current);
+            for (int j = 0; j < degree; j++) {
+                int next = neighbors[j];
+                if (mark[next] != epoch && distance[next] > 0 && predecessor[next] == current) {
+                    mark[next] = epoch;
+                    subtree[size++] = next;
+                }
+            }
+        }
+
+        //re-attaches each subtree vertex through its closest neighbor outside the subtree, if any
+        int attached = 0;
+        for (int i = 0; i < size; i++) {
+            int current = subtree[i];
+            distance[current] = -1;
+            int degree = neighborsOf(graph, current);
+            for (int j = 0; j < degree; j++) {
+                int next = neighbors[j];
+                if (mark[next] != epoch && distance[next] >= 0
+                        && (distance[current] < 0 || distance[next] + 1 < distance[current])) {
+                    distance[current] = hops(distance[next] + 1);
+                    predecessor[current] = next;
+                }
+            }
+            if (distance[current] >= 0) {
+                //keeps the attached vertices at the front, the rest are only reached through them
+                subtree[i] = subtree[attached];
+                subtree[attached++] = current;
+            }
+        }
+        sortByDistance(attached, distance);
+
+        //settles the subtree in distance order, merging the attached vertices with the ones reached from them
+        int next = 0;
+        int head = 0;
+        int tail = 0;
+        while (next < attached || head < tail) {
+            int current;
+            int at;
+            if (head == tail || next < attached && distance[subtree[next]] <= queued[head]) {
+                current = subtree[next++];
+                at = distance[current];
+            } else {
+                current = queue[head];
+                at = queued[head++];
+            }
+            //skips entries whose vertex got closer after they were queued
+            if (distance[current] != at)
+                continue;
+
+            int degree = neighborsOf(graph, current);
+            for (int i = 0; i < degree; i++) {
+                int neighbor = neighbors[i];
+                if (mark[neighbor] == epoch && (distance[neighbor] < 0 || distance[neighbor] > at + 1)) {
+                    distance[neighbor] = hops(at + 1);
+                    predecessor[neighbor] = current;
+                    queue[tail] = neighbor;
+                    queued[tail++] = at + 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Counting sort of subtree[0] up to subtree[count] by distance, which takes time linear in count
+     * and in the spread of the distances, never more than the longest path
+     */
+    private void sortByDistance(int count, short[] distance) {
+        if (count < 2)
+            return;
+        int min = Short.MAX_VALUE;
+        int max = 0;
+        for (int i = 0; i < count; i++) {
+            min = Math.min(min, distance[subtree[i]]);
+            max = Math.max(max, distance[subtree[i]]);
+        }
+        int range = max - min + 1;
+        if (range + 1 > buckets.length)
+            buckets = new int[Math.max(range + 1, buckets.length * 2)];
+        Arrays.fill(buckets, 0, range + 1, 0);
+
+        //buckets[d - min] ends up as the position of the first vertex at distance d
+        for (int i = 0; i < count; i++)
+            buckets[distance[subtree[i]] - min + 1]++;
+        for (int d = 1; d <= range; d++)
+            buckets[d] += buckets[d - 1];
+        for (int i = 0; i < count; i++)
+            sorted[buckets[distance[subtree[i]] - min]++] = subtree[i];
+        System.arraycopy(sorted, 0, subtree, 0, count);
+    }
+
+    /**
+     * @param hops length of a path in edges
+     * @return the length as it is stored in a distance row
+     * @throws IllegalStateException if the path is too long to store, like {@link PathTable#fill}
+     */
+    private static short hops(int hops) {
+        if (hops > Short.MAX_VALUE)
+            throw new IllegalStateException("path longer than " + Short.MAX_VALUE + " words");
+        return (short) hops;
+    }
+
+    /**
+     * Copies the neighbors of a vertex into the neighbors scratch array
+     *
+     * @return number of neighbors
+     */
+    private int neighborsOf(IndexedGraph<?> graph, int vertex) {
+        int degree = graph.degree(vertex);
+        if (degree > neighbors.length)
+            neighbors = new int[Math.max(degree, neighbors.length * 2)];
+        return graph.neighborIndices(vertex, neighbors);
+    }
+
+    /**
+     * Makes the scratch arrays large enough for bound vertices
+     */
+    private void grow(int bound) {
+        if (bound > mark.length) {
+            queue = new int[bound];
+            queued = new int[bound];
+            subtree = new int[bound];
+            sorted = new int[bound];
+            mark = Arrays.copyOf(mark, bound);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       PathTreeCache.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Least recently used cache of single source shortest path trees, keyed by the vertex index of the source.
+ *
+ * Trees are computed on the first query from their source, so only the sources that are actually
+ * asked about cost time and memory. A tree holds two ints per vertex index of the graph, so besides
+ * a number of trees the cache is bounded by the bytes of its trees, which keeps fewer trees of a larger graph.
+ * Counts hits and misses so the capacity can be tuned.
+ */
+public class PathTreeCache {
+
+    /**
+     * Shortest path tree from one source, copied out of a {@link BreadthFirstSearch}
+     */
+    public static class PathTree {
+        private final int source;
+        private final int[] distance;
+        private final int[] predecessor;
+
+        PathTree(BreadthFirstSearch search, int bound) {
+            this.source = search.source();
+            this.distance = new int[bound];
+            this.predecessor = new int[bound];
+            Arrays.fill(distance, -1);
+            for (int i = 0; i < search.visitedCount(); i++) {
+                int vertex = search.visited(i);
+                distance[vertex] = search.distance(vertex);
+                predecessor[vertex] = search.predecessor(vertex);
+            }
+        }
+
+        /**
+         * @return bytes of the arrays of the tree
+         */
+        long bytes() {
+            return 8L * distance.length;
+        }
+
+        /**
+         * @return index of the source vertex
+         */
+        public int source() {
+            return source;
+        }
+
+        /**
+         * @param target index of a vertex
+         * @return number of edges on a shortest path from the source to target, -1 if there is no path
+         */
+        public int distance(int target) {
+            return target < distance.length ? distance[target] : -1;
+        }
+
+        /**
+         * @param target index of a vertex reachable from the source
+         * @return index of the vertex before target on a shortest path from the source, -1 if target is the source
+         */
+        public int predecessor(int target) {
+            return predecessor[target];
+        }
+    }
+
+    private final LinkedHashMap<Integer, PathTree> trees = new LinkedHashMap<Integer, PathTree>(16, 0.75f, true);
+    private final BreadthFirstSearch search = new BreadthFirstSearch();
+    private final int capacity;
+    private final long maxBytes;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long expanded;
+
+    /**
+     * @param capacity most trees to keep, the least recently used tree is dropped to make room for a new one
+     */
+    public PathTreeCache(int capacity) {
+        this(capacity, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param capacity most trees to keep
+     * @param maxBytes most bytes of trees to keep, the least recently used trees are dropped to make room
+     *        for a new one, though the most recent tree is always kept
+     */
+    public PathTreeCache(int capacity, long maxBytes) {
+        this.capacity = capacity;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Gets the shortest path tree from a source, searching the graph if it is not cached
+     *
+     * @param graph the graph the cached trees were computed on
+     * @param source index of the source vertex
+     * @return the tree
+     */
+    public PathTree get(IndexedGraph<?> graph, int source) {
+        PathTree tree = trees.get(source);
+        if (tree != null) {
+            hits++;
+            return tree;
+        }
+
+        misses++;
+        search.search(graph, source);
+        expanded += search.visitedCount();
+        tree = new PathTree(search, graph.indexBound());
+        trees.put(source, tree);
+        bytes += tree.bytes();
+        Iterator<PathTree> eldest = trees.values().iterator();
+        while (trees.size() > 1 && (trees.size() > capacity || bytes > maxBytes)) {
+            bytes -= eldest.next().bytes();
+            eldest.remove();
+        }
+        return tree;
+    }
+
+    /**
+     * Drops every tree, has to be called whenever the graph changes
+     */
+    public void clear() {
+        trees.clear();
+        bytes = 0;
+    }
+
+    /**
+     * @return number of trees in the cache
+     */
+    public int size() {
+        return trees.size();
+    }
+
+    /**
+     * @return bytes of the trees in the cache
+     */
+    public long bytes() {
+        return bytes;
+    }
+
+    /**
+     * @return number of lookups answered from the cache
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * @return number of lookups which had to search the graph
+     */
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * @return number of vertices taken out of the queue by the searches of the misses
+     */
+    public long expanded() {
+        return expanded;
+    }
+}
@@ -0,0 +1,84 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       PrecomputationTask.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills the rows of a {@link PathTable} for a range of sources on a ForkJoinPool.
+ *
+ * Sources are independent, so the range is halved until it is small and every small range
+ * is searched with its own {@link BreadthFirstSearch}, whose arrays are garbage once the range
+ * is done rather than held by the worker threads of the pool. Each source owns its row of
+ * the table, so workers never write to the same memory.
+ */
+public class PrecomputationTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number of sources below which a task stops splitting itself
+     */
+    private static final int SPLIT_THRESHOLD = 64;
+
+    private final IndexedGraph<?> graph;
+    private final PathTable table;
+    private final int from;
+    private final int to;
+    private final AtomicInteger done;
+    private final int total;
+    private final GraphProcessor.ProgressListener listener;
+    private final ComponentIndex components;
+
+    /**
+     * @param graph the graph to search, must not change until the task is done
+     * @param table the table to fill
+     * @param from first source index
+     * @param to source index after the last one
+     * @param done number of sources finished so far, shared by all the tasks of a precomputation
+     * @param total number of sources of the whole precomputation
+     * @param listener told the number of finished sources after each batch of sources, null for none
+     * @param components components of the graph, sources alone in their component are skipped, null to search from every source
+     */
+    public PrecomputationTask(IndexedGraph<?> graph, PathTable table, int from, int to,
+            AtomicInteger done, int total, GraphProcessor.ProgressListener listener, ComponentIndex components) {
+        this.graph = graph;
+        this.table = table;
+        this.from = from;
+        this.to = to;
+        this.done = done;
+        this.total = total;
+        this.listener = listener;
+        this.components = components;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from > SPLIT_THRESHOLD) {
+            int middle = (from + to) >>> 1;
+            invokeAll(new PrecomputationTask(graph, table, from, middle, done, total, listener, components),
+                    new PrecomputationTask(graph, table, middle, to, done, total, listener, components));
+            return;
+        }
+
+        //allocating the search once per range costs little next to its SPLIT_THRESHOLD searches
+        BreadthFirstSearch search = new BreadthFirstSearch();
+        int searched = 0;
+        for (int root = from; root < to; root++) {
+            if (graph.vertexAt(root) == null || components != null && components.componentSize(root) == 1)
+                continue;
+            search.search(graph, root);
+            table.fill(search);
+            searched++;
+        }
+
+        int finished = done.addAndGet(searched);
+        if (listener != null)
+            listener.progress(finished, total);
+    }
+}
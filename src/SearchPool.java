@@ -0,0 +1,58 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       SearchPool.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of search objects shared by threads, so their arrays sized to the graph are reused
+ * no matter how many threads query, including a new virtual thread per request.
+ *
+ * A thread takes a search, uses it alone and gives it back. When the pool is empty a new search
+ * is made, and a search given back to a full pool is dropped, so the pool never holds more than
+ * its capacity and threads never wait for each other.
+ *
+ * @param <T> type of the search objects
+ */
+public class SearchPool<T> {
+
+    private final ArrayBlockingQueue<T> idle;
+    private final Supplier<T> factory;
+
+    /**
+     * @param capacity most idle searches kept
+     * @param factory makes a new search
+     */
+    public SearchPool(int capacity, Supplier<T> factory) {
+        this.idle = new ArrayBlockingQueue<T>(capacity);
+        this.factory = factory;
+    }
+
+    /**
+     * @return an idle search, or a new one if there is none
+     */
+    public T take() {
+        T search = idle.poll();
+        return search != null ? search : factory.get();
+    }
+
+    /**
+     * @param search a search taken from this pool which is not used anymore
+     */
+    public void give(T search) {
+        idle.offer(search);
+    }
+
+    /**
+     * @return number of idle searches
+     */
+    public int idle() {
+        return idle.size();
+    }
+}
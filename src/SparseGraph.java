@@ -0,0 +1,209 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       SparseGraph.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Undirected and unweighted graph implementation backed by int {@link AdjacencyLists}.
+ *
+ * Memory grows with the number of edges instead of the square of the number of vertices,
+ * which suits word graphs where every word only has a handful of neighbors.
+ * Use {@link #freeze()} to get an immutable compressed sparse row copy for traversals.
+ *
+ * @param <E> type of a vertex
+ */
+public class SparseGraph<E> implements IndexedGraph<E> {
+
+    /**
+     * Instance variables and constructors
+     */
+    private ArrayList<E> vertices;
+
+    /**
+     * Maps each vertex to its index. A removed vertex leaves a null slot behind
+     * (kept in freeSlots for reuse) so the index of every other vertex never changes.
+     */
+    private HashMap<E, Integer> index;
+    private ArrayList<Integer> freeSlots;
+
+    private AdjacencyLists adjacency;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    public SparseGraph() {
+        vertices = new ArrayList<E>();
+        index = new HashMap<E, Integer>();
+        freeSlots = new ArrayList<Integer>();
+        adjacency = new AdjacencyLists(INITIAL_CAPACITY);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E addVertex(E vertex) {
+        if (vertex == null || index.containsKey(vertex))
+            return null;
+
+        //Reuses a slot left by a removed vertex, its list is already empty
+        if (!freeSlots.isEmpty()) {
+            int slot = freeSlots.remove(freeSlots.size() - 1);
+            vertices.set(slot, vertex);
+            index.put(vertex, slot);
+            return vertex;
+        }
+
+        int slot = vertices.size();
+        adjacency.ensureCapacity(slot + 1);
+        adjacency.init(slot);
+        vertices.add(vertex);
+        index.put(vertex, slot);
+        return vertex;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E removeVertex(E vertex) {
+        if (vertex == null)
+            return null;
+
+        Integer slot = index.remove(vertex);
+        if (slot == null)
+            return null;
+
+        adjacency.clear(slot);
+        vertices.set(slot, null);
+        freeSlots.add(slot);
+        return vertex;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addEdge(E vertex1, E vertex2) {
+        Integer x = index.get(vertex1);
+        Integer y = index.get(vertex2);
+
+        //both vertices have to be in graph and be different
+        if (x == null || y == null || x.equals(y))
+            return false;
+
+        adjacency.addEdge(x, y);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean removeEdge(E vertex1, E vertex2) {
+        Integer x = index.get(vertex1);
+        Integer y = index.get(vertex2);
+
+        //both vertices have to be in graph and be different
+        if (x == null || y == null || x.equals(y))
+            return false;
+
+        adjacency.removeEdge(x, y);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isAdjacent(E vertex1, E vertex2) {
+        Integer x = index.get(vertex1);
+        Integer y = index.get(vertex2);
+
+        //both vertices have to be in graph and be different
+        if (x == null || y == null || x.equals(y))
+            return false;
+
+        return adjacency.isAdjacent(x, y);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterable<E> getNeighbors(E vertex) {
+        Integer slot = index.get(vertex);
+        if (slot == null)
+            return null;
+
+        ArrayList<E> neighbors = new ArrayList<E>(adjacency.degree(slot));
+        for (int i = 0; i < adjacency.degree(slot); i++)
+            neighbors.add(vertices.get(adjacency.neighbor(slot, i)));
+        return neighbors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterable<E> getAllVertices() {
+        //Skips the empty slots left by removed vertices
+        return () -> vertices.stream().filter(vertex -> vertex != null).iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexOf(E vertex) {
+        Integer slot = index.get(vertex);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E vertexAt(int index) {
+        return vertices.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexBound() {
+        return vertices.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int degree(int index) {
+        return adjacency.degree(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int neighborIndices(int index, int[] dest) {
+        return adjacency.neighborIndices(index, dest);
+    }
+
+    /**
+     * Builds an immutable compressed sparse row copy of this graph with the same indices
+     *
+     * @return the frozen copy, later changes to this graph do not affect it
+     */
+    public CsrGraph<E> freeze() {
+        return CsrGraph.copyOf(this);
+    }
+}
@@ -0,0 +1,54 @@
+/////////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       SparseGraphTest.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Junit test class to test class SparseGraph, runs every test of GraphTest against it
+ */
+public class SparseGraphTest extends GraphTest {
+    
+    @Override
+    protected GraphADT<String> createGraph() {
+        return new SparseGraph<>();
+    }
+    
+    /**
+     * Test that freezing keeps every vertex, index and edge and ignores later updates
+     */
+    @Test
+    public final void freezeShouldKeepVerticesAndEdges() {
+        SparseGraph<String> sparse = (SparseGraph<String>) this.graph;
+        for (String vertex : new String[] {"at", "it", "cat", "hat", "hot"})
+            sparse.addVertex(vertex);
+        sparse.addEdge("at", "it");
+        sparse.addEdge("cat", "hat");
+        sparse.addEdge("hat", "hot");
+        sparse.removeVertex("it");
+        
+        CsrGraph<String> frozen = sparse.freeze();
+        sparse.addEdge("at", "hot");
+        
+        List<String> vertices = new ArrayList<>();
+        for (String vertex : frozen.getAllVertices()) {
+            vertices.add(vertex);
+            assertEquals("index of vertex=" + vertex, sparse.indexOf(vertex), frozen.indexOf(vertex));
+        }
+        assertEquals("number of vertices in the frozen graph", 4, vertices.size());
+        assertEquals("neighbors of hat", 2, frozen.degree(frozen.indexOf("hat")));
+        assertEquals("edge added before freezing", true, frozen.isAdjacent("hot", "hat"));
+        assertEquals("edge added after freezing", false, frozen.isAdjacent("at", "hot"));
+        assertEquals("adding a vertex to the frozen graph", null, frozen.addVertex("hit"));
+    }
+}
@@ -0,0 +1,42 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       TestSupport.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Helpers shared by the Junit test classes, compiled with the tests only
+ */
+public class TestSupport {
+
+    /**
+     * Makes distinct random words over a small alphabet, so that many of them are adjacent
+     *
+     * @param random source of the letters, the same seed gives the same words
+     * @param count number of distinct words
+     * @param minLength length of the shortest words
+     * @param maxLength length of the longest words
+     * @param letters alphabet of the words, a repeated letter is drawn more often
+     * @return the words, in the order of a HashSet of them
+     */
+    public static List<String> randomWords(Random random, int count, int minLength, int maxLength, String letters) {
+        Set<String> unique = new HashSet<>();
+        while (unique.size() < count) {
+            StringBuilder word = new StringBuilder();
+            int length = minLength == maxLength ? minLength : minLength + random.nextInt(maxLength - minLength + 1);
+            for (int i = 0; i < length; i++)
+                word.append(letters.charAt(random.nextInt(letters.length())));
+            unique.add(word.toString());
+        }
+        return new ArrayList<>(unique);
+    }
+}
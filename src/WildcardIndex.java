@@ -0,0 +1,467 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       WildcardIndex.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Finds adjacent words (as defined by {@link WordProcessor#isAdjacent(String, String)})
+ * without comparing every pair of words.
+ *
+ * Every word is filed once per character under the word with that character deleted,
+ * together with the position of the deleted character. Filing "CAT" gives "AT"@0, "CT"@1 and "CA"@2.
+ * Then
+ *  two words of the same length differ by 1 char replacement exactly when they share a bucket at the same position
+ *    ("CAT" and "COT" both have "CT"@1, which is the wildcard pattern "C*T")
+ *  a word is 1 char addition away from a longer word exactly when it is the key of a bucket holding the longer word
+ *    ("AT" is the key of "CAT"'s bucket "AT"@0)
+ * so the edges of the word graph come from bucket co-membership in time proportional to the total length of the words.
+ *
+ * Words are held as ids of a {@link WordTable}. A bucket is only identified by a 64 bit hash of its key,
+ * so no key is ever stored as a String, and every candidate found through a bucket is checked against
+ * the actual chars. Bucket entries are linked lists in flat int arrays.
+ * Reading methods can run from several threads at once as long as nothing is added or removed.
+ */
+public class WildcardIndex {
+
+    /**
+     * Words the ids refer to
+     */
+    private final WordTable table;
+
+    /**
+     * present[id] is true if the word with that id is in the index
+     */
+    private boolean[] present = new boolean[64];
+    private int size;
+
+    /**
+     * Open addressing table of bucket keys, 0 for an empty slot, and the first entry of each bucket, -1 for none
+     */
+    private long[] slotKeys = new long[256];
+    private int[] slotHeads = new int[256];
+    private int slotCount;
+
+    /**
+     * Entries of all buckets: a word id, the position of the deleted char, and the next entry of the same bucket.
+     * Removed entries are chained from freeEntry through entryNext.
+     */
+    private int[] entryIds = new int[256];
+    private int[] entryPositions = new int[256];
+    private int[] entryNext = new int[256];
+    private int entryCount;
+    private int freeEntry = -1;
+
+    /**
+     * Index with its own table of words
+     */
+    public WildcardIndex() {
+        this(new WordTable());
+    }
+
+    /**
+     * Index of words of a shared table, so its ids are the ids of the table
+     *
+     * @param table the table the words are taken from, words added through {@link #add(String)} are added to it
+     */
+    public WildcardIndex(WordTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Adds a word to the index
+     *
+     * @param word the word to add
+     * @return true if the word was added, false if it is null, empty or already in the index
+     */
+    public boolean add(String word) {
+        if (word == null || word.isEmpty())
+            return false;
+        return add(table.add(word));
+    }
+
+    /**
+     * Adds a word of the table to the index
+     *
+     * @param id id of the word in the table
+     * @return true if the word was added, false if it is empty or already in the index
+     */
+    public boolean add(int id) {
+        if (table.length(id) == 0 || isPresent(id))
+            return false;
+        if (id >= present.length)
+            present = Arrays.copyOf(present, Math.max(id + 1, present.length * 2));
+        present[id] = true;
+        size++;
+
+        char[] chars = new char[table.length(id)];
+        int length = table.chars(id, chars);
+        for (int i = 0; i < length; i++) {
+            int slot = slot(hash(chars, length, i), true);
+            int entry = newEntry();
+            entryIds[entry] = id;
+            entryPositions[entry] = i;
+            entryNext[entry] = slotHeads[slot];
+            slotHeads[slot] = entry;
+        }
+        return true;
+    }
+
+    /**
+     * Removes a word from the index
+     *
+     * @param word the word to remove
+     * @return true if the word was removed, false if it was not in the index
+     */
+    public boolean remove(String word) {
+        if (word == null)
+            return false;
+        int id = table.find(word);
+        return id >= 0 && remove(id);
+    }
+
+    /**
+     * Removes a word of the table from the index
+     *
+     * @param id id of the word in the table
+     * @return true if the word was removed, false if it was not in the index
+     */
+    public boolean remove(int id) {
+        if (!isPresent(id))
+            return false;
+        present[id] = false;
+        size--;
+
+        char[] chars = new char[table.length(id)];
+        int length = table.chars(id, chars);
+        for (int i = 0; i < length; i++) {
+            int slot = slot(hash(chars, length, i), false);
+            int previous = -1;
+            for (int entry = slotHeads[slot]; entry >= 0; previous = entry, entry = entryNext[entry]) {
+                if (entryIds[entry] == id && entryPositions[entry] == i) {
+                    if (previous < 0)
+                        slotHeads[slot] = entryNext[entry];
+                    else
+                        entryNext[previous] = entryNext[entry];
+                    entryNext[entry] = freeEntry;
+                    freeEntry = entry;
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param word the word
+     * @return true if the word is in the index
+     */
+    public boolean contains(String word) {
+        return word != null && isPresent(table.find(word));
+    }
+
+    /**
+     * @return number of words in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the table the ids of the index refer to
+     */
+    public WordTable table() {
+        return table;
+    }
+
+    /**
+     * Gets the words in the index which are adjacent to a word. The word itself does not need to be in the index.
+     *
+     * @param word the word
+     * @return list of the adjacent words in the index, never containing word itself
+     */
+    public List<String> neighbors(String word) {
+        ArrayList<String> neighbors = new ArrayList<String>();
+        neighbors(word, neighbors);
+        return neighbors;
+    }
+
+    /**
+     * Adds the words in the index which are adjacent to a word to a list, see {@link #neighbors(String)}
+     *
+     * @param word the word
+     * @param neighbors receives the adjacent words in the index
+     * @return number of candidate words compared with word
+     */
+    public int neighbors(String word, List<String> neighbors) {
+        char[] chars = word.toCharArray();
+        return forEachNeighbor(chars, chars.length, table.find(chars, chars.length), id -> neighbors.add(table.word(id)));
+    }
+
+    /**
+     * Calls action with the id of every word in the index which is adjacent to a word of the table
+     *
+     * @param id id of the word in the table, which does not need to be in the index
+     * @param action receives the id of every adjacent word, never id itself
+     * @return number of candidate words compared with the word
+     */
+    public int forEachNeighbor(int id, IntConsumer action) {
+        char[] chars = new char[table.length(id)];
+        return forEachNeighbor(chars, table.chars(id, chars), id, action);
+    }
+
+    /**
+     * Calls action once for every pair of adjacent words in the index
+     *
+     * @param action receives both words of every edge
+     * @return number of candidate pairs compared to find the edges
+     */
+    public long forEachEdge(BiConsumer<String, String> action) {
+        return forEachEdgeIds((id, other) -> action.accept(table.word(id), table.word(other)));
+    }
+
+    /**
+     * Calls action once for every pair of adjacent words in the index, without making Strings of them
+     *
+     * @param action receives the ids of both words of every edge
+     * @return number of candidate pairs compared to find the edges
+     */
+    public long forEachEdgeIds(EdgeConsumer action) {
+        char[] word = new char[16];
+        char[] other = new char[16];
+        long compared = 0;
+        for (int slot = 0; slot < slotKeys.length; slot++) {
+            if (slotKeys[slot] == 0)
+                continue;
+
+            //1 char replacement: same bucket, same position
+            for (int entry = slotHeads[slot]; entry >= 0; entry = entryNext[entry]) {
+                int id = entryIds[entry];
+                word = fit(word, id);
+                int length = table.chars(id, word);
+                for (int next = entryNext[entry]; next >= 0; next = entryNext[next]) {
+                    if (entryPositions[next] != entryPositions[entry])
+                        continue;
+                    other = fit(other, entryIds[next]);
+                    compared++;
+                    if (table.chars(entryIds[next], other) == length && sameWithout(word, other, length, entryPositions[entry]))
+                        action.accept(id, entryIds[next]);
+                }
+            }
+        }
+
+        //1 char addition: a word is the key of buckets holding longer words
+        for (int id = 0; id < present.length; id++) {
+            if (!present[id])
+                continue;
+            int shorter = id;
+            compared += forEachLonger(id, longer -> action.accept(shorter, longer));
+        }
+        return compared;
+    }
+
+    /**
+     * Finds the neighbors of chars[0] up to chars[length], whose id is self or -1 if it is not in the table
+     *
+     * @return number of candidates compared
+     */
+    private int forEachNeighbor(char[] chars, int length, int self, IntConsumer action) {
+        char[] candidate = new char[length + 1];
+        char[] key = new char[Math.max(length - 1, 0)];
+        int compared = 0;
+        for (int i = 0; i < length; i++) {
+            //same length words sharing the wildcard pattern with * at position i
+            int slot = slot(hash(chars, length, i), false);
+            for (int entry = slot < 0 ? -1 : slotHeads[slot]; entry >= 0; entry = entryNext[entry]) {
+                int id = entryIds[entry];
+                if (entryPositions[entry] != i || id == self)
+                    continue;
+                candidate = fit(candidate, id);
+                compared++;
+                if (table.chars(id, candidate) == length && sameWithout(chars, candidate, length, i))
+                    action.accept(id);
+            }
+
+            //shorter words, deleting any char of a run of equal chars gives the same word so only use the first
+            if (isFirstOfRun(chars, i)) {
+                System.arraycopy(chars, 0, key, 0, i);
+                System.arraycopy(chars, i + 1, key, i, length - i - 1);
+                int id = table.find(key, length - 1);
+                if (isPresent(id))
+                    action.accept(id);
+            }
+        }
+
+        //longer words filed under this word
+        return compared + forEachLonger(chars, length, action);
+    }
+
+    /**
+     * Finds the words of the index filed under the word with the given id, each once
+     *
+     * @return number of candidates compared
+     */
+    private int forEachLonger(int id, IntConsumer action) {
+        char[] chars = new char[table.length(id)];
+        return forEachLonger(chars, table.chars(id, chars), action);
+    }
+
+    /**
+     * Finds the words of the index filed under chars[0] up to chars[length], each once
+     *
+     * @return number of candidates compared
+     */
+    private int forEachLonger(char[] chars, int length, IntConsumer action) {
+        int slot = slot(hash(chars, length, -1), false);
+        if (slot < 0)
+            return 0;
+        char[] candidate = new char[length + 1];
+        int compared = 0;
+        for (int entry = slotHeads[slot]; entry >= 0; entry = entryNext[entry], compared++) {
+            int id = entryIds[entry];
+            int position = entryPositions[entry];
+            candidate = fit(candidate, id);
+            if (table.chars(id, candidate) == length + 1
+                    && isFirstOfRun(candidate, position) && isDeletion(candidate, position, chars, length))
+                action.accept(id);
+        }
+        return compared;
+    }
+
+    /**
+     * @return buffer if it can hold the chars of the word with the given id, else a large enough new array
+     */
+    private char[] fit(char[] buffer, int id) {
+        return table.length(id) <= buffer.length ? buffer : new char[Math.max(table.length(id), buffer.length * 2)];
+    }
+
+    /**
+     * @return true if the id is a word of the index
+     */
+    private boolean isPresent(int id) {
+        return id >= 0 && id < present.length && present[id];
+    }
+
+    /**
+     * Finds the slot of a bucket key
+     *
+     * @param create true to claim an empty slot for the key if it has none
+     * @return the slot, -1 if the key has none and create is false
+     */
+    private int slot(long key, boolean create) {
+        int mask = slotKeys.length - 1;
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+        while (slotKeys[slot] != 0) {
+            if (slotKeys[slot] == key)
+                return slot;
+            slot = (slot + 1) & mask;
+        }
+        if (!create)
+            return -1;
+
+        slotKeys[slot] = key;
+        slotHeads[slot] = -1;
+        if (++slotCount * 2 > slotKeys.length) {
+            rehash();
+            return slot(key, false);
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the number of slots
+     */
+    private void rehash() {
+        long[] keys = slotKeys;
+        int[] heads = slotHeads;
+        slotKeys = new long[keys.length * 2];
+        slotHeads = new int[keys.length * 2];
+        int mask = slotKeys.length - 1;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == 0)
+                continue;
+            int slot = (int) (keys[i] ^ (keys[i] >>> 32)) & mask;
+            while (slotKeys[slot] != 0)
+                slot = (slot + 1) & mask;
+            slotKeys[slot] = keys[i];
+            slotHeads[slot] = heads[i];
+        }
+    }
+
+    /**
+     * @return an unused entry, taken from the removed ones first
+     */
+    private int newEntry() {
+        if (freeEntry >= 0) {
+            int entry = freeEntry;
+            freeEntry = entryNext[entry];
+            return entry;
+        }
+        if (entryCount == entryIds.length) {
+            entryIds = Arrays.copyOf(entryIds, entryCount * 2);
+            entryPositions = Arrays.copyOf(entryPositions, entryCount * 2);
+            entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+        }
+        return entryCount++;
+    }
+
+    /**
+     * FNV-1a hash of chars[0] up to chars[length] without the char at skip, never 0
+     *
+     * @param skip position of the deleted char, -1 to hash every char
+     */
+    private static long hash(char[] chars, int length, int skip) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++) {
+            if (i != skip) {
+                hash ^= chars[i];
+                hash *= 0x100000001b3L;
+            }
+        }
+        hash ^= hash >>> 31;
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * @return true if two words of the same length are equal except maybe at position
+     */
+    private static boolean sameWithout(char[] word1, char[] word2, int length, int position) {
+        for (int i = 0; i < length; i++)
+            if (i != position && word1[i] != word2[i])
+                return false;
+        return true;
+    }
+
+    /**
+     * @return true if deleting the char at position of longer gives shorter[0] up to shorter[length]
+     */
+    private static boolean isDeletion(char[] longer, int position, char[] shorter, int length) {
+        for (int i = 0; i < length; i++)
+            if (shorter[i] != longer[i < position ? i : i + 1])
+                return false;
+        return true;
+    }
+
+    /**
+     * @return true if the character at position starts a run of equal characters in word
+     */
+    private static boolean isFirstOfRun(char[] word, int position) {
+        return position == 0 || word[position - 1] != word[position];
+    }
+
+    /**
+     * Receives the ids of both words of an edge
+     */
+    public interface EdgeConsumer {
+        void accept(int id, int other);
+    }
+}
@@ -0,0 +1,103 @@
+/////////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       WildcardIndexTest.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class WildcardIndex against WordProcessor.isAdjacent
+ */
+public class WildcardIndexTest {
+    private WildcardIndex index;
+    private List<String> words;
+    
+    @Before
+    public void setUp() throws Exception {
+        // short words over a small alphabet so that many of them are adjacent, including repeated letters
+        this.words = TestSupport.randomWords(new Random(400), 400, 1, 5, "ABCDA");
+        this.index = new WildcardIndex();
+        for (String word : words)
+            index.add(word);
+    }
+    
+    /**
+     * @return every pair of distinct adjacent words, found by comparing all pairs
+     */
+    private Set<String> expectedEdges(List<String> words) {
+        Set<String> edges = new HashSet<>();
+        for (String word1 : words)
+            for (String word2 : words)
+                if (!word1.equals(word2) && WordProcessor.isAdjacent(word1, word2))
+                    edges.add(word1 + "|" + word2);
+        return edges;
+    }
+    
+    /**
+     * Test that forEachEdge reports exactly the adjacent pairs, each once
+     */
+    @Test
+    public final void forEachEdgeShouldMatchIsAdjacent() {
+        Set<String> edges = new HashSet<>();
+        index.forEachEdge((word1, word2) -> {
+            assertEquals("edge reported twice " + word1 + "|" + word2, true, edges.add(word1 + "|" + word2));
+            assertEquals("edge reported twice " + word1 + "|" + word2, true, edges.add(word2 + "|" + word1));
+        });
+        assertEquals("edges found through the index", expectedEdges(words), edges);
+    }
+    
+    /**
+     * Test that neighbors matches isAdjacent for words in the index and words not in it, also after removals
+     */
+    @Test
+    public final void neighborsShouldMatchIsAdjacent() {
+        List<String> removed = new ArrayList<>(words.subList(0, 100));
+        for (String word : removed)
+            assertEquals("removing word=" + word, true, index.remove(word));
+        List<String> remaining = new ArrayList<>(words.subList(100, words.size()));
+        
+        Set<String> expected = expectedEdges(remaining);
+        for (String word : words) {
+            Set<String> neighbors = new HashSet<>();
+            for (String neighbor : index.neighbors(word)) {
+                assertEquals("neighbor reported twice " + neighbor + " of " + word, true, neighbors.add(neighbor));
+                assertEquals("adjacent " + word + " and " + neighbor, true, WordProcessor.isAdjacent(word, neighbor));
+                assertEquals("neighbor " + neighbor + " still in index", true, index.contains(neighbor));
+            }
+            for (String other : remaining)
+                if (!other.equals(word) && WordProcessor.isAdjacent(word, other))
+                    assertEquals("missing neighbor " + other + " of " + word, true, neighbors.contains(other));
+            if (index.contains(word))
+                for (String neighbor : neighbors)
+                    assertEquals("edge " + word + "|" + neighbor, true, expected.contains(word + "|" + neighbor));
+        }
+    }
+    
+    /**
+     * Test that ParallelEdgeFinder reports exactly the adjacent pairs, each once
+     */
+    @Test
+    public final void parallelEdgeFinderShouldMatchIsAdjacent() {
+        Set<String> edges = new HashSet<>();
+        List<String> found = ParallelEdgeFinder.findEdges(words, new ForkJoinPool(4));
+        for (int i = 0; i < found.size(); i += 2) {
+            assertEquals("edge reported twice " + found.get(i) + "|" + found.get(i + 1), true, edges.add(found.get(i) + "|" + found.get(i + 1)));
+            assertEquals("edge reported twice " + found.get(i) + "|" + found.get(i + 1), true, edges.add(found.get(i + 1) + "|" + found.get(i)));
+        }
+        assertEquals("edges found by the parallel finder", expectedEdges(words), edges);
+    }
+}
@@ -0,0 +1,292 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       WordGraph.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Undirected and unweighted graph of words whose vertex indices are the ids of a {@link WordTable}.
+ *
+ * The words live once, packed in the table, and the graph itself only holds int adjacency lists,
+ * so there is no String object or hash map entry per word. Strings are only made when a word
+ * crosses the {@link GraphADT} interface: traversals work on indices through {@link IndexedGraph}.
+ * Removing a word keeps its id, and adding the same word again brings back the same index.
+ * The table is append-only, so a removed word still holds its bytes in the table and its slot
+ * in the arrays of the graph: memory follows every word ever added, not the words in the graph.
+ * For a graph whose words keep changing, {@link SparseGraph} reuses the slots of removed vertices.
+ */
+public class WordGraph implements IndexedGraph<String> {
+
+    /**
+     * Instance variables and constructors
+     */
+    private final WordTable words;
+
+    /**
+     * present[i] is true if the word with id i is a vertex
+     */
+    private boolean[] present;
+
+    private AdjacencyLists adjacency;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    public WordGraph() {
+        this(new WordTable());
+    }
+
+    /**
+     * Graph over the ids of a table, none of its words is a vertex yet
+     *
+     * @param words the table, words added to the graph are added to it
+     */
+    public WordGraph(WordTable words) {
+        this.words = words;
+        present = new boolean[Math.max(INITIAL_CAPACITY, words.size())];
+        adjacency = new AdjacencyLists(present.length);
+    }
+
+    /**
+     * Graph holding every word of a table, with the edges given in compressed sparse row form
+     * like the arrays of a {@link CsrGraph}, e.g. read from a {@link GraphSnapshot}
+     *
+     * @param words the table, every word of it is a vertex
+     * @param offsets the neighbors of word i are targets[offsets[i]] up to targets[offsets[i + 1]]
+     * @param targets word ids, holding both ends of each edge
+     */
+    public WordGraph(WordTable words, int[] offsets, int[] targets) {
+        this(words);
+        for (int id = 0; id < words.size(); id++) {
+            present[id] = true;
+            adjacency.set(id, targets, offsets[id], offsets[id + 1] - offsets[id]);
+        }
+    }
+
+    /**
+     * @return the table holding the words of the graph
+     */
+    public WordTable words() {
+        return words;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String addVertex(String vertex) {
+        if (vertex == null || indexOf(vertex) >= 0)
+            return null;
+        addVertex(words.add(vertex));
+        return vertex;
+    }
+
+    /**
+     * Adds a word given as UTF-8 bytes, without making a String of it
+     *
+     * @param word array holding the UTF-8 bytes of the word
+     * @param from index of the first byte of the word
+     * @param length number of bytes of the word
+     * @return index of the word, whether it was added or already a vertex
+     */
+    public int addVertex(byte[] word, int from, int length) {
+        int id = words.add(word, from, length);
+        addVertex(id);
+        return id;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String removeVertex(String vertex) {
+        if (vertex == null)
+            return null;
+
+        int slot = indexOf(vertex);
+        if (slot < 0)
+            return null;
+
+        adjacency.clear(slot);
+        present[slot] = false;
+        return vertex;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addEdge(String vertex1, String vertex2) {
+        return addEdge(indexOf(vertex1), indexOf(vertex2));
+    }
+
+    /**
+     * Adds an edge between two vertices given by index
+     *
+     * @param x index of the first vertex
+     * @param y index of the second vertex
+     * @return true if the edge was added or already there, false if a vertex is missing or both are the same
+     */
+    public boolean addEdge(int x, int y) {
+        //both vertices have to be in graph and be different
+        if (!contains(x) || !contains(y) || x == y)
+            return false;
+
+        adjacency.addEdge(x, y);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean removeEdge(String vertex1, String vertex2) {
+        int x = indexOf(vertex1);
+        int y = indexOf(vertex2);
+
+        //both vertices have to be in graph and be different
+        if (x < 0 || y < 0 || x == y)
+            return false;
+
+        adjacency.removeEdge(x, y);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isAdjacent(String vertex1, String vertex2) {
+        int x = indexOf(vertex1);
+        int y = indexOf(vertex2);
+
+        //both vertices have to be in graph and be different
+        if (x < 0 || y < 0 || x == y)
+            return false;
+
+        return adjacency.isAdjacent(x, y);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterable<String> getNeighbors(String vertex) {
+        int slot = indexOf(vertex);
+        if (slot < 0)
+            return null;
+
+        ArrayList<String> neighbors = new ArrayList<String>(adjacency.degree(slot));
+        for (int i = 0; i < adjacency.degree(slot); i++)
+            neighbors.add(words.word(adjacency.neighbor(slot, i)));
+        return neighbors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterable<String> getAllVertices() {
+        ArrayList<String> vertices = new ArrayList<String>();
+        for (int i = 0; i < indexBound(); i++)
+            if (contains(i))
+                vertices.add(words.word(i));
+        return vertices;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexOf(String vertex) {
+        if (vertex == null)
+            return -1;
+        int id = words.find(vertex);
+        return contains(id) ? id : -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String vertexAt(int index) {
+        return contains(index) ? words.word(index) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexBound() {
+        return words.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int degree(int index) {
+        return adjacency.degree(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int neighborIndices(int index, int[] dest) {
+        return adjacency.neighborIndices(index, dest);
+    }
+
+    /**
+     * Builds an immutable compressed sparse row copy of this graph with the same indices. Only the edges
+     * and which ids are vertices are copied, the words are looked up by id in a {@link WordTable#snapshot()}
+     * of the table, so freezing makes no String per word.
+     *
+     * @return the frozen copy, later changes to this graph do not affect it
+     */
+    public CsrGraph<String> freeze() {
+        int bound = indexBound();
+        WordTable table = words.snapshot();
+        BitSet vertices = new BitSet(bound);
+        int[] offsets = new int[bound + 1];
+        for (int i = 0; i < bound; i++) {
+            if (contains(i))
+                vertices.set(i);
+            offsets[i + 1] = offsets[i] + adjacency.degree(i);
+        }
+        int[] targets = new int[offsets[bound]];
+        for (int i = 0; i < bound; i++)
+            for (int j = 0; j < adjacency.degree(i); j++)
+                targets[offsets[i] + j] = adjacency.neighbor(i, j);
+
+        return new CsrGraph<String>(bound, id -> vertices.get(id) ? table.word(id) : null, word -> {
+            int id = word == null ? -1 : table.find(word);
+            return id >= 0 && vertices.get(id) ? id : -1;
+        }, offsets, targets);
+    }
+
+    /**
+     * @param index an index, possibly of a word of the table which is not a vertex
+     * @return true if the index is the index of a vertex
+     */
+    public boolean contains(int index) {
+        return index >= 0 && index < present.length && present[index];
+    }
+
+    /**
+     * Makes the word with the given id a vertex, growing the arrays to cover every id of the table
+     */
+    private void addVertex(int id) {
+        adjacency.ensureCapacity(words.size());
+        if (adjacency.capacity() > present.length)
+            present = Arrays.copyOf(present, adjacency.capacity());
+        adjacency.init(id);
+        present[id] = true;
+    }
+}
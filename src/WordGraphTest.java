@@ -0,0 +1,47 @@
+/////////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       WordGraphTest.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Junit test class to test class WordGraph, runs every test of GraphTest against it
+ */
+public class WordGraphTest extends GraphTest {
+    
+    @Override
+    protected GraphADT<String> createGraph() {
+        return new WordGraph();
+    }
+    
+    /**
+     * Test that a removed word gets its index back when added again, and that
+     * words outside ASCII are stored and found like the others
+     */
+    @Test
+    public final void readdedWordShouldKeepItsIndex() {
+        WordGraph words = (WordGraph) this.graph;
+        for (String vertex : new String[] {"CAT", "HAT", "HOT", "STRASSE", "STRA\u00DFE"})
+            words.addVertex(vertex);
+        words.addEdge("CAT", "HAT");
+        words.addEdge("HAT", "HOT");
+        int index = words.indexOf("HAT");
+        
+        words.removeVertex("HAT");
+        assertEquals("index of a removed word", -1, words.indexOf("HAT"));
+        assertEquals("neighbors of CAT after removing HAT", 0, words.degree(words.indexOf("CAT")));
+        words.addVertex("HAT");
+        assertEquals("index of a word added again", index, words.indexOf("HAT"));
+        assertEquals("edge of a word added again", false, words.isAdjacent("HAT", "CAT"));
+        
+        assertEquals("word outside ASCII", "STRA\u00DFE", words.vertexAt(words.indexOf("STRA\u00DFE")));
+        assertEquals("number of words in the table", 5, words.words().size());
+    }
+}
@@ -0,0 +1,375 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       WordLadderServer.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local HTTP server answering queries from the version last published by a {@link GraphProcessor},
+ * on the HTTP server of the JDK. Words are query parameters and answers are JSON:
+ *  GET /path?from=cat&to=wheat      {"from":"CAT","to":"WHEAT","distance":3,"path":["CAT","HAT","HEAT","WHEAT"]}
+ *  GET /distance?from=cat&to=wheat  {"from":"CAT","to":"WHEAT","distance":3}
+ *  GET /neighbors?word=hat          {"word":"HAT","neighbors":["CAT","HEAT","RAT"]}
+ *  POST /batch                      a pair "from to" per line of the body, {"paths":[["CAT","HAT"],null]}
+ *  GET /metrics                     number and latency percentiles of the requests per endpoint, as text
+ * A missing parameter or a bad batch line gets 400, a batch of more than MAX_BATCH pairs or MAX_BODY bytes 413,
+ * a word without neighbors because it is not in the graph 404, another method 405, and every query gets 503
+ * until the processor published a version.
+ *
+ * A request reads the published version once and queries it without locking, so the processor can keep
+ * being updated and published while requests are answered, see {@link GraphProcessor#publish()}.
+ * Requests run on virtual threads from Java 21 on and on a fixed pool of threads before.
+ *
+ * The JDK server writes the headers and the body of an answer separately, so without TCP_NODELAY the body
+ * waits for the client to acknowledge the headers, which a client delays by up to 40 ms. Launch the JVM with
+ * -Dsun.net.httpserver.nodelay=true to avoid it, {@link #main(String[])} sets it unless it is given.
+ */
+public class WordLadderServer implements AutoCloseable {
+
+    /**
+     * Most pairs of a batch, so one request cannot keep a thread busy for long
+     */
+    public static final int MAX_BATCH = 10000;
+
+    /**
+     * Most bytes of the body of a batch, enough for MAX_BATCH pairs of long words
+     */
+    public static final int MAX_BODY = 1 << 20;
+
+    private final GraphProcessor processor;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final Map<String, MetricsRecorder.Histogram> latencies = new LinkedHashMap<String, MetricsRecorder.Histogram>();
+
+    /**
+     * Answers a request to an endpoint
+     */
+    private interface Endpoint {
+        /**
+         * @param version the published version
+         * @param parameters the query parameters, keys in lowercase
+         * @param exchange the request
+         * @return the JSON answer
+         * @throws IllegalArgumentException if the request is malformed
+         * @throws NoSuchElementException if a word is not in the graph
+         * @throws IOException exception resulting from reading the request
+         */
+        String answer(GraphVersion version, Map<String, String> parameters, HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Thrown when the body of a request is larger than allowed
+     */
+    private static class TooLargeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        TooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Stream throwing TooLargeException once more than a number of bytes are read from it
+     */
+    private static class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0)
+                count(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0)
+                count(read);
+            return read;
+        }
+
+        private void count(int read) {
+            remaining -= read;
+            if (remaining < 0)
+                throw new TooLargeException("body of more than " + MAX_BODY + " bytes");
+        }
+    }
+
+    /**
+     * @param processor the processor whose published versions are queried
+     * @param address address to listen on, port 0 picks a free port
+     * @throws IOException exception resulting from opening the socket
+     */
+    public WordLadderServer(GraphProcessor processor, InetSocketAddress address) throws IOException {
+        this.processor = processor;
+        this.server = HttpServer.create(address, 1024);
+        ExecutorService virtual;
+        try {
+            virtual = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            //Executors.newVirtualThreadPerTaskExecutor is only there from Java 21 on, the build targets 17
+            virtual = null;
+        }
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual
+                : Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+        server.setExecutor(executor);
+
+        endpoint("/path", "GET", (version, parameters, exchange) -> {
+            String from = word(parameters, "from");
+            String to = word(parameters, "to");
+            List<String> path = version.getShortestPath(from, to);
+            return "{\"from\":" + json(from) + ",\"to\":" + json(to) + ",\"distance\":"
+                    + (path == null ? -1 : path.size() - 1) + ",\"path\":" + json(path) + "}";
+        });
+        endpoint("/distance", "GET", (version, parameters, exchange) -> {
+            String from = word(parameters, "from");
+            String to = word(parameters, "to");
+            return "{\"from\":" + json(from) + ",\"to\":" + json(to) + ",\"distance\":"
+                    + version.getShortestDistance(from, to) + "}";
+        });
+        endpoint("/neighbors", "GET", (version, parameters, exchange) -> {
+            String word = word(parameters, "word");
+            Iterable<String> neighbors = version.graph().getNeighbors(word);
+            if (neighbors == null)
+                throw new NoSuchElementException(word + " is not in the graph");
+            List<String> list = new ArrayList<String>();
+            neighbors.forEach(list::add);
+            return "{\"word\":" + json(word) + ",\"neighbors\":" + json(list) + "}";
+        });
+        endpoint("/batch", "POST", (version, parameters, exchange) -> {
+            String length = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (length != null && Long.parseLong(length.trim()) > MAX_BODY)
+                throw new TooLargeException("body of more than " + MAX_BODY + " bytes");
+            List<String> words1 = new ArrayList<String>();
+            List<String> words2 = new ArrayList<String>();
+            //the body is read through a bounded stream since chunked requests have no length
+            BufferedReader body = new BufferedReader(new InputStreamReader(
+                    new BoundedInputStream(exchange.getRequestBody(), MAX_BODY), StandardCharsets.UTF_8));
+            for (String line = body.readLine(); line != null; line = body.readLine()) {
+                if (line.trim().isEmpty())
+                    continue;
+                String[] pair = line.trim().split("\\s+");
+                if (pair.length != 2)
+                    throw new IllegalArgumentException("expected two words, got " + line.trim());
+                if (words1.size() == MAX_BATCH)
+                    throw new TooLargeException("more than " + MAX_BATCH + " pairs");
+                words1.add(pair[0].toUpperCase());
+                words2.add(pair[1].toUpperCase());
+            }
+            StringBuilder answer = new StringBuilder("{\"paths\":[");
+            List<List<String>> paths = version.getShortestPaths(words1, words2);
+            for (int i = 0; i < paths.size(); i++)
+                answer.append(i == 0 ? "" : ",").append(json(paths.get(i)));
+            return answer.append("]}").toString();
+        });
+        server.createContext("/metrics", exchange -> {
+            StringBuilder text = new StringBuilder();
+            for (Map.Entry<String, MetricsRecorder.Histogram> entry : latencies.entrySet())
+                text.append(String.format("%s: %s%n", entry.getKey(), entry.getValue()));
+            respond(exchange, 200, "text/plain", text.toString());
+        });
+    }
+
+    /**
+     * Starts answering requests in the background
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * @return the port the server listens on
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return true if requests run on virtual threads
+     */
+    public boolean virtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * @param endpoint path of an endpoint, like /path
+     * @return latencies of the requests to the endpoint in nanoseconds, null for an unknown endpoint
+     */
+    public MetricsRecorder.Histogram latencies(String endpoint) {
+        return latencies.get(endpoint);
+    }
+
+    /**
+     * Stops the server without waiting for the requests being answered
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * Registers an endpoint, timing its requests and turning its exceptions into status codes
+     */
+    private void endpoint(String path, String method, Endpoint endpoint) {
+        MetricsRecorder.Histogram histogram = new MetricsRecorder.Histogram();
+        latencies.put(path, histogram);
+        server.createContext(path, exchange -> {
+            long start = System.nanoTime();
+            try {
+                GraphVersion version = processor.getPublished();
+                if (!exchange.getRequestMethod().equals(method))
+                    respond(exchange, 405, "application/json", error(path + " takes " + method));
+                else if (version == null)
+                    respond(exchange, 503, "application/json", error("no graph is published yet"));
+                else
+                    respond(exchange, 200, "application/json", endpoint.answer(version, parameters(exchange), exchange));
+            } catch (TooLargeException e) {
+                respond(exchange, 413, "application/json", error(e.getMessage()));
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, "application/json", error(e.getMessage()));
+            } catch (NoSuchElementException e) {
+                respond(exchange, 404, "application/json", error(e.getMessage()));
+            } catch (RuntimeException e) {
+                respond(exchange, 500, "application/json", error(String.valueOf(e)));
+            } finally {
+                exchange.close();
+                histogram.record(System.nanoTime() - start);
+            }
+        });
+    }
+
+    /**
+     * @return the query parameters of a request, keys in lowercase
+     * @throws IllegalArgumentException if a parameter is not properly encoded
+     */
+    private static Map<String, String> parameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<String, String>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null)
+            return parameters;
+        for (String parameter : query.split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0)
+                parameters.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8).toLowerCase(),
+                        URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    /**
+     * @return the word of a parameter, trimmed and converted to uppercase like the words of the dictionary
+     * @throws IllegalArgumentException if the parameter is missing or empty
+     */
+    private static String word(Map<String, String> parameters, String name) {
+        String word = parameters.get(name);
+        if (word == null || word.trim().isEmpty())
+            throw new IllegalArgumentException("missing parameter " + name);
+        return word.trim().toUpperCase();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + json(message) + "}";
+    }
+
+    /**
+     * @return the words as a JSON array, null as JSON null
+     */
+    private static String json(List<String> words) {
+        if (words == null)
+            return "null";
+        StringBuilder array = new StringBuilder("[");
+        for (String word : words)
+            array.append(array.length() == 1 ? "" : ",").append(json(word));
+        return array.append("]").toString();
+    }
+
+    /**
+     * @return the text as a JSON string
+     */
+    private static String json(String text) {
+        StringBuilder string = new StringBuilder("\"");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\')
+                string.append('\\').append(c);
+            else if (c < ' ')
+                string.append(String.format("\\u%04x", (int) c));
+            else
+                string.append(c);
+        }
+        return string.append('"').toString();
+    }
+
+    /**
+     * Serves a dictionary on the loopback address until the process is stopped
+     *
+     * @param args dictionary file, port (8080), query mode (BIDIRECTIONAL)
+     * @throws IOException exception resulting from opening the socket
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("usage: WordLadderServer dictionary [port] [query mode]");
+            return;
+        }
+        if (System.getProperty("sun.net.httpserver.nodelay") == null)
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        GraphProcessor.QueryMode mode = args.length > 2 ? GraphProcessor.QueryMode.valueOf(args[2].toUpperCase())
+                : GraphProcessor.QueryMode.BIDIRECTIONAL;
+        GraphProcessor processor = new GraphProcessor();
+        processor.setQueryMode(mode);
+        System.out.println(processor.populateGraph(args[0]) + " words read from " + args[0]);
+        if (mode == GraphProcessor.QueryMode.PRECOMPUTED)
+            processor.shortestPathPrecomputation();
+        processor.publish();
+
+        WordLadderServer server = new WordLadderServer(processor,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), args.length > 1 ? Integer.parseInt(args[1]) : 8080));
+        server.start();
+        System.out.println("listening on http://localhost:" + server.port() + "/"
+                + (server.virtualThreads() ? " with virtual threads" : ""));
+    }
+}
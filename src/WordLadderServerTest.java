@@ -0,0 +1,188 @@
+/////////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       WordLadderServerTest.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class WordLadderServer
+ */
+public class WordLadderServerTest {
+    private GraphProcessor processor;
+    private WordLadderServer server;
+    private HttpClient client;
+    private File dictionary;
+
+    @Before
+    public void setUp() throws Exception {
+        this.dictionary = File.createTempFile("dictionary", ".txt");
+        this.dictionary.deleteOnExit();
+        Files.write(dictionary.toPath(), Arrays.asList("cat", "hat", "heat", "wheat", "kit", "rat", "zzz"));
+        this.processor = new GraphProcessor();
+        this.processor.populateGraph(dictionary.getPath());
+        this.processor.setQueryMode(GraphProcessor.QueryMode.BIDIRECTIONAL);
+        this.server = new WordLadderServer(processor, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        this.server.start();
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Test that every endpoint answers from the published version
+     */
+    @Test
+    public final void endpointsShouldAnswerQueries() throws Exception {
+        processor.publish();
+
+        HttpResponse<String> path = get("/path?from=cat&to=wheat");
+        assertEquals("path status", 200, path.statusCode());
+        assertEquals("path", "{\"from\":\"CAT\",\"to\":\"WHEAT\",\"distance\":3,\"path\":[\"CAT\",\"HAT\",\"HEAT\",\"WHEAT\"]}",
+                path.body());
+        assertEquals("no path", "{\"from\":\"CAT\",\"to\":\"ZZZ\",\"distance\":-1,\"path\":null}",
+                get("/path?from=cat&to=zzz").body());
+        assertEquals("distance", "{\"from\":\"HAT\",\"to\":\"RAT\",\"distance\":1}", get("/distance?from=%20hat&to=Rat").body());
+        assertTrue("neighbors", get("/neighbors?word=hat").body().matches("\\{\"word\":\"HAT\",\"neighbors\":\\[.*\\]\\}"));
+        for (String neighbor : Arrays.asList("CAT", "HEAT", "RAT"))
+            assertTrue("neighbor " + neighbor, get("/neighbors?word=hat").body().contains("\"" + neighbor + "\""));
+        assertEquals("batch", "{\"paths\":[[\"CAT\",\"HAT\",\"HEAT\",\"WHEAT\"],null,[\"HAT\",\"CAT\"]]}",
+                post("/batch", "cat wheat\ncat zzz\n\nhat  cat\n").body());
+        assertTrue("metrics", get("/metrics").body().contains("/path: 2,"));
+        assertEquals("requests to /distance", 1, server.latencies("/distance").count());
+    }
+
+    /**
+     * Test that bad requests get their status codes
+     */
+    @Test
+    public final void badRequestsShouldFail() throws Exception {
+        assertEquals("before publishing", 503, get("/path?from=cat&to=wheat").statusCode());
+        processor.publish();
+        assertEquals("missing word", 400, get("/path?from=cat").statusCode());
+        assertEquals("unknown word", 404, get("/neighbors?word=dog").statusCode());
+        assertEquals("bad batch line", 400, post("/batch", "cat wheat hat").statusCode());
+        assertEquals("wrong method", 405, get("/batch").statusCode());
+        assertEquals("missing word", "{\"error\":\"missing parameter to\"}", get("/distance?from=cat").body());
+
+        StringBuilder batch = new StringBuilder();
+        for (int i = 0; i <= WordLadderServer.MAX_BATCH; i++)
+            batch.append("cat hat\n");
+        assertEquals("too many pairs", 413, post("/batch", batch.toString()).statusCode());
+        // only the headers are sent, the server answers before reading a body of the announced length
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port())) {
+            socket.setSoTimeout(10000);
+            socket.getOutputStream().write(("POST /batch HTTP/1.1\r\nHost: localhost\r\nContent-Length: "
+                    + (WordLadderServer.MAX_BODY + 1) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            String status = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))
+                    .readLine();
+            assertTrue("too long body: " + status, status.startsWith("HTTP/1.1 413"));
+        }
+        // a body from a stream is sent in chunks, without a length, one byte longer than allowed
+        char[] word = new char[WordLadderServer.MAX_BODY - 1];
+        Arrays.fill(word, 'a');
+        byte[] body = (new String(word) + " b").getBytes(StandardCharsets.UTF_8);
+        HttpRequest chunked = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + "/batch"))
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(body))).build();
+        assertEquals("too long body without length", 413,
+                client.send(chunked, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    /**
+     * Test that updates show up once they are published
+     */
+    @Test
+    public final void publishedUpdatesShouldBeServed() throws Exception {
+        processor.publish();
+        processor.addWord("kat");
+        assertEquals("before publishing", "{\"from\":\"CAT\",\"to\":\"KIT\",\"distance\":-1}",
+                get("/distance?from=cat&to=kit").body());
+        processor.publish();
+        assertEquals("after publishing", "{\"from\":\"CAT\",\"to\":\"KIT\",\"distance\":2}",
+                get("/distance?from=cat&to=kit").body());
+    }
+
+    /**
+     * Test that concurrent clients querying random words all get the answers of the version
+     */
+    @Test
+    public final void concurrentClientsShouldGetCorrectAnswers() throws Exception {
+        // short words over a small alphabet so that most of them are connected
+        List<String> words = TestSupport.randomWords(new Random(400), 2000, 5, 5, "ABCDEFG");
+        Files.write(dictionary.toPath(), words);
+        processor.populateGraph(dictionary.getPath());
+        GraphVersion version = processor.publish();
+
+        int clients = 8;
+        int requests = 5;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            long seed = c;
+            results.add(pool.submit(() -> {
+                Random queries = new Random(seed);
+                int answered = 0;
+                for (int i = 0; i < requests; i++) {
+                    String word1 = words.get(queries.nextInt(words.size()));
+                    String word2 = words.get(queries.nextInt(words.size()));
+                    HttpResponse<String> response = get("/distance?from=" + word1 + "&to=" + word2);
+                    if (response.statusCode() == 200 && response.body().endsWith(
+                            "\"distance\":" + version.getShortestDistance(word1, word2) + "}"))
+                        answered++;
+                }
+                return answered;
+            }));
+        }
+        int answered = 0;
+        for (Future<Integer> result : results)
+            answered += result.get();
+        pool.shutdown();
+
+        assertEquals("correct answers", clients * requests, answered);
+        assertEquals("recorded latencies", clients * requests, server.latencies("/distance").count());
+    }
+}
@@ -0,0 +1,94 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       WordPath.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Unmodifiable list of the words on a path, holding only the vertex indices of the words.
+ *
+ * The word at a position is looked up when it is read, so a path nobody reads costs one int per word
+ * instead of a String per word. size() is the distance plus one, and iterating or streaming the path
+ * copies nothing. The indices are taken when the path is made, so later updates of the paths it was
+ * rebuilt from do not change it; the lookup must keep giving the same word for an index, like a
+ * {@link WordTable} or an immutable {@link CsrGraph} do.
+ */
+public class WordPath extends AbstractList<String> implements RandomAccess {
+
+    private final int[] vertices;
+    private final IntFunction<String> words;
+
+    /**
+     * @param vertices indices of the words from the first to the last word, owned by the path from now on
+     * @param words gives the word of a vertex index
+     */
+    public WordPath(int[] vertices, IntFunction<String> words) {
+        this.vertices = vertices;
+        this.words = words;
+    }
+
+    /**
+     * Rebuilds a path by following predecessors back from its last word
+     *
+     * @param target index of the last word
+     * @param distance number of edges on the path
+     * @param predecessor gives the index of the word before a word on the path
+     * @param words gives the word of a vertex index
+     * @return the path from the first word to target
+     */
+    public static WordPath of(int target, int distance, IntUnaryOperator predecessor, IntFunction<String> words) {
+        int[] vertices = new int[distance + 1];
+        for (int i = distance, vertex = target; i >= 0; i--, vertex = predecessor.applyAsInt(vertex))
+            vertices[i] = vertex;
+        return new WordPath(vertices, words);
+    }
+
+    /**
+     * @return number of edges on the path
+     */
+    public int distance() {
+        return vertices.length - 1;
+    }
+
+    /**
+     * @param i position on the path
+     * @return vertex index of the word at position i
+     */
+    public int vertex(int i) {
+        return vertices[i];
+    }
+
+    /**
+     * @return the same words from the last to the first
+     */
+    public WordPath reversed() {
+        int[] reversed = new int[vertices.length];
+        for (int i = 0; i < vertices.length; i++)
+            reversed[i] = vertices[vertices.length - 1 - i];
+        return new WordPath(reversed, words);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String get(int index) {
+        return words.apply(vertices[index]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return vertices.length;
+    }
+}
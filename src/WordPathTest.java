@@ -0,0 +1,85 @@
+/////////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       WordPathTest.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class WordPath, and the paths GraphProcessor returns as WordPaths
+ */
+public class WordPathTest {
+    private File dictionary;
+
+    @Before
+    public void setUp() throws Exception {
+        this.dictionary = File.createTempFile("dictionary", ".txt");
+        this.dictionary.deleteOnExit();
+        Files.write(dictionary.toPath(), Arrays.asList("cat", "hat", "heat", "wheat", "kit", "rat", "zzz"));
+    }
+
+    /**
+     * Test that words are only looked up when they are read and the path behaves like a list of them
+     */
+    @Test
+    public final void pathShouldLookUpWordsWhenRead() {
+        List<String> words = Arrays.asList("CAT", "HAT", "HEAT", "WHEAT");
+        AtomicInteger lookups = new AtomicInteger();
+        // predecessors of the chain 0 - 1 - 2 - 3
+        WordPath path = WordPath.of(3, 3, vertex -> vertex - 1, vertex -> {
+            lookups.incrementAndGet();
+            return words.get(vertex);
+        });
+
+        assertEquals("size", 4, path.size());
+        assertEquals("distance", 3, path.distance());
+        assertEquals("vertex", 2, path.vertex(2));
+        assertEquals("lookups before reading", 0, lookups.get());
+        assertEquals("words", words, path);
+        assertEquals("same as a list", new ArrayList<>(words).hashCode(), path.hashCode());
+        assertEquals("stream", "CAT-HAT-HEAT-WHEAT", path.stream().collect(Collectors.joining("-")));
+        assertEquals("reversed", Arrays.asList("WHEAT", "HEAT", "HAT", "CAT"), path.reversed());
+        try {
+            path.add("NEAT");
+            assertTrue("path was modified", false);
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Test that a path keeps its words after they are removed from the graph, with every kind of graph
+     */
+    @Test
+    public final void pathShouldOutliveRemovedWords() {
+        for (IndexedGraph<String> graph : Arrays.<IndexedGraph<String>>asList(new WordGraph(), new SparseGraph<String>(),
+                new Graph<String>())) {
+            GraphProcessor processor = new GraphProcessor(graph);
+            processor.populateGraph(dictionary.getPath());
+            processor.shortestPathPrecomputation();
+            List<String> path = processor.getShortestPath("CAT", "WHEAT");
+            // the graphs which reuse indices give the index of HEAT to the next word added
+            processor.removeWord("HEAT");
+            processor.addWord("CAB");
+
+            assertTrue("path of " + graph.getClass(), path instanceof WordPath);
+            assertEquals("path of " + graph.getClass(), Arrays.asList("CAT", "HAT", "HEAT", "WHEAT"), path);
+        }
+    }
+}
@@ -7,8 +7,12 @@
 // Credits:          none
 /////////////////////////////////////////////////////////////////////////////////
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.stream.Stream;
 
 /**
@@ -17,6 +21,11 @@ import java.util.stream.Stream;
  */
 public class WordProcessor {
     
+    /**
+     * Number of bytes of a dictionary file mapped at once by loadWordTable
+     */
+    private static final int WINDOW = 1 << 26;
+    
     /**
      * Gets a Stream of words from the filepath.
      * 
@@ -66,11 +75,94 @@ public class WordProcessor {
          *      streamOfLines.map(...).filter(a -> ...).map(...) and so on
          */
         
-        Stream<String> wordStream = Files.lines(Paths.get(filepath)).map(String::toUpperCase).filter(x -> x != "" && !x.isEmpty());
+        Stream<String> wordStream = Files.lines(Paths.get(filepath)).map(String::trim).map(String::toUpperCase).filter(x -> !x.isEmpty());
         
         return wordStream;
     }
     
+    /**
+     * Reads the words of a dictionary file into a {@link WordTable}.
+     * 
+     * Gives the same words as {@link #getWordStream(String)}, without duplicates, but the file is
+     * memory mapped a window at a time and split into lines directly over the mapped bytes, so no
+     * String is made per line. Each line is trimmed and converted to uppercase while it is copied
+     * into a reused buffer. Lines with non ASCII characters are decoded and converted as Strings instead.
+     * 
+     * @param filepath file path to the dictionary file
+     * @return table of the distinct words in the order they first appear in the file
+     * @throws IOException exception resulting from accessing the filepath
+     */
+    public static WordTable loadWordTable(String filepath) throws IOException {
+        WordTable table = new WordTable();
+        byte[] line = new byte[64];
+        try (FileChannel channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            int window = WINDOW;
+            while (position < size) {
+                int length = (int) Math.min(window, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                
+                int start = 0;
+                for (int i = 0; i < length; i++) {
+                    if (buffer.get(i) == '\n') {
+                        line = addLine(table, buffer, start, i, line);
+                        start = i + 1;
+                    }
+                }
+                
+                if (position + length == size) {
+                    addLine(table, buffer, start, length, line);
+                    position = size;
+                } else if (start == 0) {
+                    //a single line fills the whole window
+                    window = (int) Math.min(2L * window, Integer.MAX_VALUE);
+                } else {
+                    //the next window starts at the line cut off by this one
+                    position += start;
+                }
+            }
+        }
+        return table;
+    }
+    
+    /**
+     * Adds the trimmed, uppercase word of buffer[from] up to buffer[to] to the table, if it is not empty
+     * 
+     * @return scratch, or a larger array if the word did not fit in it
+     */
+    private static byte[] addLine(WordTable table, MappedByteBuffer buffer, int from, int to, byte[] scratch) {
+        //same as String.trim, every byte up to the space is a control char or the space
+        while (from < to && (buffer.get(from) & 0xff) <= ' ')
+            from++;
+        while (to > from && (buffer.get(to - 1) & 0xff) <= ' ')
+            to--;
+        if (from == to)
+            return scratch;
+        
+        int length = to - from;
+        if (length > scratch.length)
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(from + i);
+            if (b >= 'a' && b <= 'z')
+                b -= 'a' - 'A';
+            else if (b < 0)
+                ascii = false;
+            scratch[i] = b;
+        }
+        
+        if (ascii) {
+            table.add(scratch, 0, length);
+        } else {
+            String word = new String(scratch, 0, length, StandardCharsets.UTF_8).trim().toUpperCase();
+            if (!word.isEmpty())
+                table.add(word);
+        }
+        return scratch;
+    }
+    
     /**
      * Adjacency between word1 and word2 is defined by:
      * if the difference between word1 and word2 is of
@@ -82,65 +174,15 @@ public class WordProcessor {
      * else
      *  word1 and word2 are not adjacent
      *  
-     * Note: if word1 is equal to word2, they are not adjacent
+     * Note: if word1 is equal to word2, they are reported adjacent, callers compare distinct words
+     * 
+     * The check is done by {@link AdjacencyKernel}, which reads the chars in place without copying them.
      * 
      * @param word1 first word
      * @param word2 second word
      * @return true if word1 and word2 are adjacent else false
      */
     public static boolean isAdjacent(String word1, String word2) {
-        // Convert the two words into char array
-        char[] w1 = word1.toCharArray();
-        char[] w2 = word2.toCharArray();
-        
-        // If the lengths of the two words differ by more 1, then not adjacent
-        if (Math.abs(w1.length - w2.length) > 1) {
-            return false;
-        }
-        
-        
-        // If the two words have same length, then check for replacement 
-        if (w1.length == w2.length) {
-            int count = 0;
-            for (int i = 0; i < w1.length; i++) {
-                if (w1[i] != w2[i])
-                    count++;
-                if (count > 1)
-                    return false;
-            }
-        } 
-        // If the two words' length differ by 1, check for addition or deletion
-        else {
-            // If word2 is longer than word1
-            if (w2.length > w1.length) {
-                int count = 0;
-                for (int i = 0; i < w1.length; i++) {
-                    if (w2[i + count] != w1[i]) {
-                        if (count != 0) {
-                            return false;
-                        } else {
-                            i--;
-                            count++;
-                        }
-                    }
-                        
-                }
-            } 
-            // If word1 is longer than word2
-            else {
-                int count = 0;
-                for (int i = 0; i < w2.length; i++) {
-                    if (w1[i + count] != w2[i]) {
-                        if (count != 0) {
-                            return false;
-                        } else {
-                            i--;
-                            count++;
-                        }
-                    }
-                }
-            }
-        }
-        return true;    
+        return AdjacencyKernel.isAdjacent(word1, word2);
     }
 }
@@ -0,0 +1,339 @@
+///////////////////////////////////////////////////////////////////////////////
+//                   
+// Class File:       WordTable.java
+// Semester:         Spring 2018
+//
+// Author:           Yaakov Levin, Anthony Leung, Haoran Li, Ben Lewis
+// Credits:          none
+/////////////////////////////////////////////////////////////////////////////////
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Set of distinct words numbered 0, 1, 2... in the order they were first added.
+ *
+ * The UTF-8 bytes of all the words are packed one after the other into a single array with
+ * an offset per word, and duplicates are found through an open addressing hash table of word
+ * ids, so a table of n words is a handful of arrays instead of n String objects.
+ * Ids are never reused, so a word keeps its id for the life of the table and structures
+ * built on the table, like {@link WordGraph} and {@link WildcardIndex}, can hold ids instead of words.
+ * The table is append-only: there is no removal, so its memory grows with every distinct word
+ * ever added, including words later removed from a graph built on it.
+ * Since added words are never moved or changed, {@link #snapshot()} can share the arrays with
+ * readers on other threads while words keep being added.
+ */
+public class WordTable {
+
+    /**
+     * UTF-8 bytes of every word, word i takes bytes[offsets[i]] up to bytes[offsets[i + 1]]
+     */
+    private byte[] bytes;
+    private int[] offsets;
+    private int count;
+
+    /**
+     * Hash of every word, kept to rebuild the slots without rehashing the bytes
+     */
+    private int[] hashes;
+
+    /**
+     * Open addressing table of word id + 1 per slot, 0 for an empty slot. Never more than half full.
+     * A snapshot treats the ids added after it as empty slots.
+     */
+    private int[] slots;
+
+    /**
+     * True for a snapshot, which cannot add words
+     */
+    private final boolean readOnly;
+
+    public WordTable() {
+        bytes = new byte[1024];
+        offsets = new int[65];
+        hashes = new int[64];
+        slots = new int[128];
+        readOnly = false;
+    }
+
+    /**
+     * Table over words already packed back to back, like the words of a {@link GraphSnapshot}.
+     * The arrays are taken over rather than copied, only the hashes and slots are built.
+     *
+     * @param bytes UTF-8 bytes of every word, word i takes bytes[offsets[i]] up to bytes[offsets[i + 1]]
+     * @param offsets count + 1 ascending offsets into bytes, starting at 0
+     * @param count number of words
+     * @throws IllegalArgumentException if a word is there twice
+     */
+    public WordTable(byte[] bytes, int[] offsets, int count) {
+        this.bytes = bytes;
+        //add needs room for one more offset than hashes
+        this.offsets = count == 0 ? Arrays.copyOf(offsets, 2) : offsets;
+        this.count = count;
+        hashes = new int[Math.max(count, 1)];
+        int capacity = 128;
+        while (capacity < count * 2)
+            capacity *= 2;
+        slots = new int[capacity];
+        readOnly = false;
+
+        int mask = slots.length - 1;
+        for (int id = 0; id < count; id++) {
+            int start = offsets[id];
+            int length = offsets[id + 1] - start;
+            hashes[id] = hash(bytes, start, length);
+            int slot = hashes[id] & mask;
+            while (slots[slot] != 0) {
+                int other = slots[slot] - 1;
+                if (hashes[other] == hashes[id] && equals(other, bytes, start, length))
+                    throw new IllegalArgumentException("words " + other + " and " + id + " are the same");
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    /**
+     * Snapshot of a table, sharing its arrays
+     */
+    private WordTable(WordTable table) {
+        bytes = table.bytes;
+        offsets = table.offsets;
+        hashes = table.hashes;
+        slots = table.slots;
+        count = table.count;
+        readOnly = true;
+    }
+
+    /**
+     * Read-only view of the words added so far, which stays valid while more words are added to this table.
+     * Nothing is copied: a word is written once, to cells of the arrays beyond those the snapshot reads,
+     * and arrays which fill up are replaced rather than changed. The words of a snapshot are only safely
+     * visible to other threads once it is handed over through a volatile field or a lock.
+     *
+     * @return the snapshot
+     * @throws UnsupportedOperationException if this table is a snapshot
+     */
+    public WordTable snapshot() {
+        if (readOnly)
+            throw new UnsupportedOperationException("a snapshot of a word table is read-only");
+        return new WordTable(this);
+    }
+
+    /**
+     * Adds a word unless it is already in the table
+     *
+     * @param word array holding the UTF-8 bytes of the word
+     * @param from index of the first byte of the word
+     * @param length number of bytes of the word
+     * @return id of the word
+     * @throws UnsupportedOperationException if this table is a snapshot
+     */
+    public int add(byte[] word, int from, int length) {
+        if (readOnly)
+            throw new UnsupportedOperationException("a snapshot of a word table is read-only");
+        int hash = hash(word, from, length);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && equals(id, word, from, length))
+                return id;
+            slot = (slot + 1) & mask;
+        }
+
+        if (offsets[count] + length > bytes.length)
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, offsets[count] + length));
+        if (count == hashes.length) {
+            hashes = Arrays.copyOf(hashes, hashes.length * 2);
+            offsets = Arrays.copyOf(offsets, hashes.length + 1);
+        }
+        System.arraycopy(word, from, bytes, offsets[count], length);
+        offsets[count + 1] = offsets[count] + length;
+        hashes[count] = hash;
+        slots[slot] = count + 1;
+        count++;
+
+        if (count * 2 > slots.length)
+            rehash();
+        return count - 1;
+    }
+
+    /**
+     * Adds a word unless it is already in the table
+     *
+     * @param word the word
+     * @return id of the word
+     * @throws UnsupportedOperationException if this table is a snapshot
+     */
+    public int add(String word) {
+        byte[] encoded = word.getBytes(StandardCharsets.UTF_8);
+        return add(encoded, 0, encoded.length);
+    }
+
+    /**
+     * @param word array holding the UTF-8 bytes of a word
+     * @param from index of the first byte of the word
+     * @param length number of bytes of the word
+     * @return id of the word, -1 if it is not in the table
+     */
+    public int find(byte[] word, int from, int length) {
+        int hash = hash(word, from, length);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            //a word added after the snapshot took a slot that was empty for it
+            if (id >= count)
+                break;
+            if (hashes[id] == hash && equals(id, word, from, length))
+                return id;
+        }
+        return -1;
+    }
+
+    /**
+     * Looks a word up without encoding it when it is plain ASCII
+     *
+     * @param chars array holding the chars of a word
+     * @param length number of chars of the word
+     * @return id of the word, -1 if it is not in the table
+     */
+    public int find(char[] chars, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            if (chars[i] >= 0x80) {
+                byte[] encoded = new String(chars, 0, length).getBytes(StandardCharsets.UTF_8);
+                return find(encoded, 0, encoded.length);
+            }
+            hash = 31 * hash + chars[i];
+        }
+        hash ^= hash >>> 16;
+
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            //a word added after the snapshot took a slot that was empty for it
+            if (id >= count)
+                break;
+            if (hashes[id] == hash && offsets[id + 1] - offsets[id] == length) {
+                int start = offsets[id];
+                int i = 0;
+                while (i < length && bytes[start + i] == chars[i])
+                    i++;
+                if (i == length)
+                    return id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param word the word
+     * @return id of the word, -1 if it is not in the table
+     */
+    public int find(String word) {
+        return find(word.toCharArray(), word.length());
+    }
+
+    /**
+     * Copies the chars of a word into dest, decoding the bytes only when the word is not plain ASCII
+     *
+     * @param id id of a word
+     * @param dest array with room for at least {@link #length(int)} chars
+     * @return number of chars of the word
+     */
+    public int chars(int id, char[] dest) {
+        int start = offsets[id];
+        int length = offsets[id + 1] - start;
+        for (int i = 0; i < length; i++) {
+            if (bytes[start + i] < 0) {
+                String word = word(id);
+                word.getChars(0, word.length(), dest, 0);
+                return word.length();
+            }
+            dest[i] = (char) bytes[start + i];
+        }
+        return length;
+    }
+
+    /**
+     * @return number of words in the table
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param id id of a word
+     * @return the word
+     */
+    public String word(int id) {
+        return new String(bytes, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param id id of a word
+     * @return index of the first byte of the word in {@link #bytes()}
+     */
+    public int offset(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * @param id id of a word
+     * @return number of UTF-8 bytes of the word
+     */
+    public int length(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * @return the array the words are packed in, must not be modified
+     */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * @return a list of every word as a String, in id order
+     */
+    public List<String> words() {
+        ArrayList<String> words = new ArrayList<String>(count);
+        for (int id = 0; id < count; id++)
+            words.add(word(id));
+        return words;
+    }
+
+    /**
+     * @return true if word id holds the given bytes
+     */
+    private boolean equals(int id, byte[] word, int from, int length) {
+        int start = offsets[id];
+        return offsets[id + 1] - start == length
+                && Arrays.equals(bytes, start, start + length, word, from, from + length);
+    }
+
+    /**
+     * Doubles the number of slots
+     */
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < count; id++) {
+            int slot = hashes[id] & mask;
+            while (slots[slot] != 0)
+                slot = (slot + 1) & mask;
+            slots[slot] = id + 1;
+        }
+    }
+
+    private static int hash(byte[] word, int from, int length) {
+        int hash = 0;
+        for (int i = from; i < from + length; i++)
+            hash = 31 * hash + word[i];
+        //spreads the low bits used to pick a slot
+        return hash ^ (hash >>> 16);
+    }
+}